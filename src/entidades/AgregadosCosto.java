@@ -0,0 +1,76 @@
+package entidades;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Totales de costo de toda la cartera de proyectos, agrupados por estado,
+ * por cliente y por mes de inicio. Se actualizan con la diferencia que informa
+ * cada proyecto, así los reportes no recalculan ningún proyecto.
+ */
+public class AgregadosCosto implements ObservadorProyecto {
+	private Map<String, Double> porEstado;
+	private Map<String, Double> porCliente;
+	private Map<YearMonth, Double> porMes;
+	
+	public AgregadosCosto() {
+		this.porEstado = new HashMap<>();
+		this.porCliente = new HashMap<>();
+		this.porMes = new TreeMap<>();
+	}
+	
+	public synchronized void agregar(Proyecto proyecto) {
+		sumar(proyecto, proyecto.getEstado(), proyecto.getCostoProyecto());
+	}
+	
+	// para proyectos que todavía no se cargaron de una instantánea
+	public synchronized void agregar(CabeceraProyecto cabecera) {
+		sumar(cabecera.getEstado(), cabecera.getCliente(), cabecera.getFechaInicio(), cabecera.getCosto());
+	}
+	
+	@Override
+	public synchronized void estadoCambiado(Proyecto proyecto, String estadoAnterior) {
+		double costo = proyecto.getCostoProyecto();
+		porEstado.merge(estadoAnterior, -costo, Double::sum);
+		porEstado.merge(proyecto.getEstado(), costo, Double::sum);
+	}
+	
+	@Override
+	public synchronized void costoCambiado(Proyecto proyecto, double costoAnterior) {
+		sumar(proyecto, proyecto.getEstado(), proyecto.getCostoProyecto() - costoAnterior);
+	}
+	
+	public synchronized double costoPorEstado(String estado) {
+		return porEstado.getOrDefault(estado, 0.0);
+	}
+	
+	public synchronized double costoPorCliente(String cliente) {
+		return porCliente.getOrDefault(cliente, 0.0);
+	}
+	
+	public synchronized double costoPorMes(YearMonth mes) {
+		return porMes.getOrDefault(mes, 0.0);
+	}
+	
+	public synchronized Map<String, Double> costosPorCliente() {
+		return new HashMap<>(porCliente);
+	}
+	
+	public synchronized Map<YearMonth, Double> costosPorMes() {
+		return new TreeMap<>(porMes);
+	}
+	
+	private void sumar(Proyecto proyecto, String estado, double delta) {
+		sumar(estado, proyecto.getCliente().getNombre(), proyecto.getFechaInicio(), delta);
+	}
+	
+	private void sumar(String estado, String cliente, LocalDate inicio, double delta) {
+		if (delta == 0) return;
+		porEstado.merge(estado, delta, Double::sum);
+		porCliente.merge(cliente, delta, Double::sum);
+		porMes.merge(YearMonth.from(inicio), delta, Double::sum);
+	}
+}
@@ -0,0 +1,86 @@
+package entidades;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Asignación de costo mínimo entre n filas y m columnas, con n <= m: cada fila
+ * recibe una columna distinta y la suma de los costos es mínima.
+ *
+ * El costo de la fila i con la columna j es factorFila[i] * factorColumna[j]
+ * + fijoFila[i] + fijoColumna[j]. Con esa forma siempre hay una asignación óptima
+ * "sin cruces": ordenando las filas por factor de mayor a menor y las columnas de
+ * menor a mayor, las filas toman columnas en orden creciente (si dos pares se
+ * cruzan, intercambiarlos no aumenta el costo). Entonces alcanza con elegir qué
+ * columnas se usan, con una programación dinámica de O(n m) en tiempo y de
+ * O(n (m - n + 1)) bits, en lugar de los O(n² m) del método húngaro general. El costo se calcula al
+ * vuelo, sin armar la matriz.
+ */
+class AsignacionOptima {
+	private AsignacionOptima() {
+	}
+	
+	/**
+	 * @return Para cada fila, el índice de la columna asignada.
+	 */
+	static int[] resolver(double[] factorFila, double[] fijoFila, double[] factorColumna, double[] fijoColumna) {
+		int n = factorFila.length;
+		int m = factorColumna.length;
+		if (n > m) {
+			throw new IllegalArgumentException("Debe haber al menos tantas columnas como filas");
+		}
+		// la fila k solo puede tomar las columnas k - 1 .. k - 1 + (m - n): hace falta un bit por cada una
+		int ancho = m - n + 1;
+		if ((long) n * ancho > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Demasiadas tareas y empleados para asignar de una vez: "
+					+ n + " tareas y " + m + " empleados");
+		}
+		int[] filas = ordenar(n, Comparator.comparingDouble((Integer i) -> factorFila[i]).reversed());
+		int[] columnas = ordenar(m, Comparator.comparingDouble((Integer j) -> factorColumna[j]));
+
+		// mejor[k]: costo mínimo de asignar las primeras k filas con las columnas vistas hasta ahora;
+		// usa[k - 1] marca, para cada columna de su ventana, si se la lleva la fila k
+		double[] mejor = new double[n + 1];
+		Arrays.fill(mejor, 1, n + 1, Double.POSITIVE_INFINITY);
+		BitSet[] usa = new BitSet[n];
+		for (int k = 0; k < n; k++) {
+			usa[k] = new BitSet(ancho);
+		}
+		for (int j = 0; j < m; j++) {
+			int columna = columnas[j];
+			double factor = factorColumna[columna];
+			double fijo = fijoColumna[columna];
+			// de atrás para adelante, así mejor[k - 1] todavía no incluye esta columna;
+			// las filas que faltan deben caber en las columnas que quedan
+			int desde = Math.min(n, j + 1);
+			int hasta = Math.max(1, n - (m - 1 - j));
+			for (int k = desde; k >= hasta; k--) {
+				int fila = filas[k - 1];
+				double conEsta = mejor[k - 1] + factorFila[fila] * factor + fijoFila[fila] + fijo;
+				if (conEsta < mejor[k]) {
+					mejor[k] = conEsta;
+					usa[k - 1].set(j - (k - 1));
+				}
+			}
+		}
+
+		// reconstruye desde la última fila: el valor final de mejor[k] salió de la última
+		// columna en la que mejoró, y el de mejor[k - 1] de una columna anterior a esa
+		int[] columnaDeFila = new int[n];
+		int j = m - 1;
+		for (int k = n; k >= 1; k--) {
+			while (!usa[k - 1].get(j - (k - 1))) {
+				j--;
+			}
+			columnaDeFila[filas[k - 1]] = columnas[j];
+			j--;
+		}
+		return columnaDeFila;
+	}
+	
+	private static int[] ordenar(int cantidad, Comparator<Integer> orden) {
+		return IntStream.range(0, cantidad).boxed().sorted(orden).mapToInt(Integer::intValue).toArray();
+	}
+}
@@ -0,0 +1,50 @@
+package entidades;
+
+import java.time.LocalDate;
+
+/**
+ * Datos de un proyecto guardados al frente de su registro en la instantánea.
+ * Alcanzan para los índices de la cartera sin leer las tareas.
+ */
+public class CabeceraProyecto {
+	private int numero;
+	private String estado;
+	private String direccion;
+	private String cliente;
+	private LocalDate fechaInicio;
+	private LocalDate fechaFinEstimado;
+	private double costo;
+	
+	public CabeceraProyecto(int numero, String estado, String direccion, String cliente,
+			LocalDate fechaInicio, LocalDate fechaFinEstimado, double costo) {
+		this.numero = numero;
+		this.estado = estado;
+		this.direccion = direccion;
+		this.cliente = cliente;
+		this.fechaInicio = fechaInicio;
+		this.fechaFinEstimado = fechaFinEstimado;
+		this.costo = costo;
+	}
+	
+	public int getNumero() {
+		return numero;
+	}
+	public String getEstado() {
+		return estado;
+	}
+	public String getDireccion() {
+		return direccion;
+	}
+	public String getCliente() {
+		return cliente;
+	}
+	public LocalDate getFechaInicio() {
+		return fechaInicio;
+	}
+	public LocalDate getFechaFinEstimado() {
+		return fechaFinEstimado;
+	}
+	public double getCosto() {
+		return costo;
+	}
+}
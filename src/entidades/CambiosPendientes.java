@@ -0,0 +1,85 @@
+package entidades;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proyectos y empleados que cambiaron desde el último punto de control.
+ * Se marcan después de cada cambio, así un punto de control que vacía los
+ * conjuntos y después lee el estado nunca pierde una modificación: si llega
+ * a mitad de camino, queda marcada para el siguiente.
+ */
+public class CambiosPendientes implements ObservadorProyecto, ObservadorEmpleado {
+	private Set<Integer> proyectos;
+	private Set<Integer> empleados;
+	
+	public CambiosPendientes() {
+		this.proyectos = ConcurrentHashMap.newKeySet();
+		this.empleados = ConcurrentHashMap.newKeySet();
+	}
+	
+	@Override
+	public void estadoCambiado(Proyecto proyecto, String estadoAnterior) {
+		proyectos.add(proyecto.getNumeroProyecto());
+	}
+	
+	@Override
+	public void proyectoModificado(Proyecto proyecto) {
+		proyectos.add(proyecto.getNumeroProyecto());
+	}
+	
+	@Override
+	public void disponibilidadCambiada(Empleado empleado) {
+		empleados.add(empleado.getLegajo());
+	}
+	
+	@Override
+	public void retrasosCambiados(Empleado empleado) {
+		empleados.add(empleado.getLegajo());
+	}
+	
+	public void marcarProyecto(int numero) {
+		proyectos.add(numero);
+	}
+	
+	public void marcarEmpleado(int legajo) {
+		empleados.add(legajo);
+	}
+	
+	// saca y devuelve los marcados; los que se marquen mientras tanto quedan para la próxima
+	public Set<Integer> tomarProyectos() {
+		return tomar(proyectos);
+	}
+	
+	public Set<Integer> tomarEmpleados() {
+		return tomar(empleados);
+	}
+	
+	// vuelve a marcar lo tomado, por ejemplo si no se pudo escribir el punto de control
+	public void devolver(Collection<Integer> numerosProyecto, Collection<Integer> legajos) {
+		proyectos.addAll(numerosProyecto);
+		empleados.addAll(legajos);
+	}
+	
+	public void limpiar() {
+		proyectos.clear();
+		empleados.clear();
+	}
+	
+	public int cantidad() {
+		return proyectos.size() + empleados.size();
+	}
+	
+	private static Set<Integer> tomar(Set<Integer> marcados) {
+		Set<Integer> tomados = new HashSet<>();
+		Iterator<Integer> it = marcados.iterator();
+		while (it.hasNext()) {
+			tomados.add(it.next());
+			it.remove();
+		}
+		return tomados;
+	}
+}
@@ -0,0 +1,105 @@
+package entidades;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Índice de todas las tareas sin asignar y sin terminar de la cartera, ordenadas
+ * por una prioridad configurable. Se mantiene con los avisos de cada tarea
+ * (asignación, liberación, fin, retraso), así pedir las próximas k tareas cuesta
+ * O(log n + k) sin recorrer los proyectos.
+ */
+public class ColaTareasPendientes implements ObservadorProyecto {
+	// las que empiezan antes primero
+	public static final Comparator<TareaPendiente> porInicioDelProyecto =
+			Comparator.comparing(TareaPendiente::getFechaInicioProyecto);
+	// las más largas primero
+	public static final Comparator<TareaPendiente> porDiasNecesarios =
+			Comparator.comparingInt(TareaPendiente::getDiasNecesarios).reversed();
+	
+	private TreeSet<TareaPendiente> cola;
+	private Map<Tarea, TareaPendiente> entradas; // por identidad: Tarea.equals compara solo el título
+	
+	public ColaTareasPendientes(Comparator<TareaPendiente> prioridad) {
+		this.cola = new TreeSet<>(desempatar(prioridad));
+		this.entradas = new IdentityHashMap<>();
+	}
+	
+	public synchronized void agregar(Proyecto proyecto) {
+		for (Tarea t : proyecto.getTareas().values()) {
+			actualizar(proyecto, t);
+		}
+	}
+	
+	@Override
+	public void estadoCambiado(Proyecto proyecto, String estadoAnterior) {
+		// al finalizar, cada tarea se termina y avisa por su cuenta
+	}
+	
+	@Override
+	public synchronized void tareaCambiada(Proyecto proyecto, Tarea tarea) {
+		actualizar(proyecto, tarea);
+	}
+	
+	/**
+	 * Cambia la prioridad y reordena la cola entera, en O(n log n).
+	 */
+	public synchronized void ordenarPor(Comparator<TareaPendiente> prioridad) {
+		TreeSet<TareaPendiente> nueva = new TreeSet<>(desempatar(prioridad));
+		nueva.addAll(cola);
+		cola = nueva;
+	}
+	
+	// las primeras cantidad tareas según la prioridad, como (número de proyecto, título)
+	public synchronized List<Tupla<Integer, String>> siguientes(int cantidad) {
+		List<Tupla<Integer, String>> resultado = new ArrayList<>(Math.min(cantidad, cola.size()));
+		for (TareaPendiente t : cola) {
+			if (resultado.size() == cantidad) {
+				break;
+			}
+			resultado.add(new Tupla<>(t.getNumeroProyecto(), t.getTitulo()));
+		}
+		return resultado;
+	}
+	
+	// todas, en orden de prioridad
+	public synchronized List<TareaPendiente> todas() {
+		return new ArrayList<>(cola);
+	}
+	
+	// la de mayor prioridad, o null si no hay tareas sin asignar
+	public synchronized TareaPendiente primera() {
+		return cola.isEmpty() ? null : cola.first();
+	}
+	
+	public synchronized int cantidad() {
+		return cola.size();
+	}
+	
+	// METODOS AUXILIARES
+	
+	private void actualizar(Proyecto proyecto, Tarea tarea) {
+		TareaPendiente anterior = entradas.remove(tarea);
+		if (anterior != null) {
+			cola.remove(anterior);
+		}
+		if (tarea.getEmpleadoAsignado() == null && !tarea.estaTerminada()) {
+			TareaPendiente nueva = new TareaPendiente(proyecto, tarea);
+			entradas.put(tarea, nueva);
+			cola.add(nueva);
+		}
+	}
+	
+	// el TreeSet necesita un orden total: a igual prioridad, por proyecto y título
+	private static Comparator<TareaPendiente> desempatar(Comparator<TareaPendiente> prioridad) {
+		if (prioridad == null) {
+			throw new IllegalArgumentException("La prioridad no puede ser nula");
+		}
+		return prioridad.thenComparingInt(TareaPendiente::getNumeroProyecto)
+				.thenComparing(TareaPendiente::getClave);
+	}
+}
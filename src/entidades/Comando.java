@@ -0,0 +1,86 @@
+package entidades;
+
+/**
+ * Una operación sobre una tarea de un proyecto, para enviar varias juntas con
+ * IHomeSolution.ejecutarLote. Se crean con los métodos estáticos de cada tipo.
+ */
+public class Comando {
+	public static final String asignar = "ASIGNAR";
+	public static final String asignarMenosRetraso = "ASIGNAR_MENOS_RETRASO";
+	public static final String registrarRetraso = "REGISTRAR_RETRASO";
+	public static final String finalizarTarea = "FINALIZAR_TAREA";
+	public static final String agregarTarea = "AGREGAR_TAREA";
+	public static final String reasignar = "REASIGNAR";
+	public static final String reasignarMenosRetraso = "REASIGNAR_MENOS_RETRASO";
+	
+	private String tipo;
+	private Integer numeroProyecto;
+	private String titulo;
+	private String descripcion;
+	private double dias;
+	private Integer legajo;
+	
+	private Comando(String tipo, Integer numeroProyecto, String titulo, String descripcion, double dias, Integer legajo) {
+		if(titulo == null || titulo.isBlank()) {
+			throw new IllegalArgumentException("El título de la tarea no puede ser vacío");
+		}
+		this.tipo = tipo;
+		this.numeroProyecto = numeroProyecto;
+		this.titulo = titulo;
+		this.descripcion = descripcion;
+		this.dias = dias;
+		this.legajo = legajo;
+	}
+	
+	public static Comando asignar(Integer numero, String titulo) {
+		return new Comando(asignar, numero, titulo, null, 0, null);
+	}
+	
+	public static Comando asignarMenosRetraso(Integer numero, String titulo) {
+		return new Comando(asignarMenosRetraso, numero, titulo, null, 0, null);
+	}
+	
+	public static Comando registrarRetraso(Integer numero, String titulo, double dias) {
+		return new Comando(registrarRetraso, numero, titulo, null, dias, null);
+	}
+	
+	public static Comando finalizarTarea(Integer numero, String titulo) {
+		return new Comando(finalizarTarea, numero, titulo, null, 0, null);
+	}
+	
+	public static Comando agregarTarea(Integer numero, String titulo, String descripcion, double dias) {
+		return new Comando(agregarTarea, numero, titulo, descripcion, dias, null);
+	}
+	
+	public static Comando reasignar(Integer numero, Integer legajo, String titulo) {
+		return new Comando(reasignar, numero, titulo, null, 0, legajo);
+	}
+	
+	public static Comando reasignarMenosRetraso(Integer numero, String titulo) {
+		return new Comando(reasignarMenosRetraso, numero, titulo, null, 0, null);
+	}
+	
+	public String getTipo() {
+		return tipo;
+	}
+	public Integer getNumeroProyecto() {
+		return numeroProyecto;
+	}
+	public String getTitulo() {
+		return titulo;
+	}
+	public String getDescripcion() {
+		return descripcion;
+	}
+	public double getDias() {
+		return dias;
+	}
+	public Integer getLegajo() {
+		return legajo;
+	}
+	
+	@Override
+	public String toString() {
+		return tipo + " [Proyecto=" + numeroProyecto + ", Tarea=" + titulo + "]";
+	}
+}
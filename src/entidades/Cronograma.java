@@ -0,0 +1,264 @@
+package entidades;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Grafo de dependencias entre las tareas de un proyecto (sin ciclos), con el
+ * inicio y fin más temprano de cada tarea en días desde el inicio del proyecto.
+ *
+ * Los tiempos tempranos se mantienen al día: cuando una tarea cambia de duración
+ * (por un retraso) o gana una predecesora, se recalcula ella y, en orden topológico,
+ * las que dependen de ella, cada una como mucho una vez y solo si se movió el fin de
+ * alguna predecesora. La duración total es el mayor fin temprano, que sale de un
+ * multiconjunto ordenado en O(log n). Los tiempos tardíos dependen de la duración
+ * total, que puede moverlos a todos, así que se recalculan recién al consultarlos,
+ * una vez por cada serie de cambios.
+ */
+class Cronograma {
+	private Map<Tarea, Nodo> nodos; // por identidad: Tarea.equals compara solo el título
+	private TreeMap<Integer, Integer> finesTempranos; // fin temprano -> cantidad de tareas
+	private boolean tardiosVigentes;
+	
+	Cronograma() {
+		this.nodos = new IdentityHashMap<>();
+		this.finesTempranos = new TreeMap<>();
+	}
+	
+	// una tarea nueva no tiene predecesoras: empieza el día 0
+	void agregar(Tarea tarea) {
+		Nodo nodo = new Nodo(tarea);
+		nodos.put(tarea, nodo);
+		nodo.finTemprano = duracion(tarea);
+		sumarFin(nodo.finTemprano);
+		tardiosVigentes = false;
+	}
+	
+	/**
+	 * @throws IllegalArgumentException si la dependencia ya existe o formaría un ciclo.
+	 */
+	void agregarDependencia(Tarea tarea, Tarea predecesora) {
+		Nodo nodo = nodo(tarea);
+		Nodo anterior = nodo(predecesora);
+		if (nodo == anterior || alcanza(nodo, anterior)) {
+			throw new IllegalArgumentException("La dependencia forma un ciclo");
+		}
+		if (nodo.predecesoras.contains(anterior)) {
+			throw new IllegalArgumentException("La dependencia ya existe");
+		}
+		enlazar(nodo, anterior);
+		recalcularDesde(tarea);
+	}
+	
+	// para restaurar una instantánea: ya se validó al crearla, después se llama a recalcularTodo
+	void restaurarDependencia(Tarea tarea, Tarea predecesora) {
+		enlazar(nodo(tarea), nodo(predecesora));
+	}
+	
+	/**
+	 * Recalcula los tiempos tempranos de la tarea y, de las que dependen de ella,
+	 * solo de las que tienen una predecesora cuyo fin cambió. Las recorre en orden
+	 * topológico, contando predecesoras solo dentro de lo alcanzable desde la tarea,
+	 * así cada una se recalcula una sola vez aunque le lleguen cambios por varios caminos.
+	 */
+	void recalcularDesde(Tarea tarea) {
+		tardiosVigentes = false;
+		Nodo origen = nodo(tarea);
+		if (!actualizarTemprano(origen)) {
+			return;
+		}
+		List<Nodo> alcanzables = alcanzables(origen);
+		Map<Nodo, Integer> pendientes = new IdentityHashMap<>(alcanzables.size());
+		for (Nodo n : alcanzables) {
+			for (Nodo s : n.sucesoras) {
+				pendientes.merge(s, 1, Integer::sum);
+			}
+		}
+		Set<Nodo> sucios = Collections.newSetFromMap(new IdentityHashMap<>());
+		Deque<Nodo> listos = new ArrayDeque<>();
+		listos.add(origen);
+		while (!listos.isEmpty()) {
+			Nodo n = listos.poll();
+			boolean cambio = n == origen || (sucios.contains(n) && actualizarTemprano(n));
+			for (Nodo s : n.sucesoras) {
+				if (cambio) sucios.add(s);
+				if (pendientes.merge(s, -1, Integer::sum) == 0) {
+					listos.add(s);
+				}
+			}
+		}
+	}
+	
+	// recorre todas las tareas en orden topológico
+	void recalcularTodo() {
+		Map<Nodo, Integer> pendientes = new IdentityHashMap<>();
+		Deque<Nodo> listos = new ArrayDeque<>();
+		for (Nodo n : nodos.values()) {
+			pendientes.put(n, n.predecesoras.size());
+			if (n.predecesoras.isEmpty()) listos.add(n);
+		}
+		while (!listos.isEmpty()) {
+			Nodo n = listos.poll();
+			actualizarTemprano(n);
+			for (Nodo s : n.sucesoras) {
+				if (pendientes.merge(s, -1, Integer::sum) == 0) {
+					listos.add(s);
+				}
+			}
+		}
+		tardiosVigentes = false;
+	}
+	
+	// días desde el inicio del proyecto hasta que termina la última tarea
+	int duracionTotal() {
+		return finesTempranos.isEmpty() ? 0 : finesTempranos.lastKey();
+	}
+	
+	int inicioTemprano(Tarea tarea) {
+		return nodo(tarea).inicioTemprano;
+	}
+	
+	int inicioTardio(Tarea tarea) {
+		actualizarTardios();
+		return nodo(tarea).inicioTardio;
+	}
+	
+	List<Tarea> predecesoras(Tarea tarea) {
+		List<Tarea> resultado = new ArrayList<>();
+		for (Nodo n : nodo(tarea).predecesoras) {
+			resultado.add(n.tarea);
+		}
+		return resultado;
+	}
+	
+	// las tareas sin holgura, ordenadas por inicio temprano
+	List<Tarea> caminoCritico() {
+		actualizarTardios();
+		List<Nodo> criticos = new ArrayList<>();
+		for (Nodo n : nodos.values()) {
+			if (n.inicioTardio == n.inicioTemprano) criticos.add(n);
+		}
+		criticos.sort(Comparator.comparingInt((Nodo n) -> n.inicioTemprano).thenComparing(n -> n.tarea.getClave()));
+		List<Tarea> resultado = new ArrayList<>(criticos.size());
+		for (Nodo n : criticos) {
+			resultado.add(n.tarea);
+		}
+		return resultado;
+	}
+	
+	// METODOS AUXILIARES
+	
+	private Nodo nodo(Tarea tarea) {
+		Nodo nodo = nodos.get(tarea);
+		if (nodo == null) {
+			throw new IllegalArgumentException("La tarea no pertenece al proyecto: " + tarea);
+		}
+		return nodo;
+	}
+	
+	private static int duracion(Tarea tarea) {
+		return tarea.getDiasNecesarios() + tarea.getDiasRetraso();
+	}
+	
+	private static void enlazar(Nodo nodo, Nodo anterior) {
+		nodo.predecesoras.add(anterior);
+		anterior.sucesoras.add(nodo);
+	}
+	
+	// recalcula inicio y fin temprano a partir de las predecesoras; devuelve si cambió el fin
+	private boolean actualizarTemprano(Nodo nodo) {
+		int inicio = 0;
+		for (Nodo p : nodo.predecesoras) {
+			inicio = Math.max(inicio, p.finTemprano);
+		}
+		int fin = inicio + duracion(nodo.tarea);
+		nodo.inicioTemprano = inicio;
+		if (fin == nodo.finTemprano) {
+			return false;
+		}
+		restarFin(nodo.finTemprano);
+		nodo.finTemprano = fin;
+		sumarFin(fin);
+		return true;
+	}
+	
+	// pasada hacia atrás desde las tareas finales, en orden topológico inverso
+	private void actualizarTardios() {
+		if (tardiosVigentes) {
+			return;
+		}
+		int total = duracionTotal();
+		Map<Nodo, Integer> pendientes = new IdentityHashMap<>();
+		Deque<Nodo> listos = new ArrayDeque<>();
+		for (Nodo n : nodos.values()) {
+			pendientes.put(n, n.sucesoras.size());
+			if (n.sucesoras.isEmpty()) listos.add(n);
+		}
+		while (!listos.isEmpty()) {
+			Nodo n = listos.poll();
+			int fin = total;
+			for (Nodo s : n.sucesoras) {
+				fin = Math.min(fin, s.inicioTardio);
+			}
+			n.inicioTardio = fin - duracion(n.tarea);
+			for (Nodo p : n.predecesoras) {
+				if (pendientes.merge(p, -1, Integer::sum) == 0) {
+					listos.add(p);
+				}
+			}
+		}
+		tardiosVigentes = true;
+	}
+	
+	private boolean alcanza(Nodo desde, Nodo buscado) {
+		for (Nodo n : alcanzables(desde)) {
+			if (n == buscado) return true;
+		}
+		return false;
+	}
+	
+	private static List<Nodo> alcanzables(Nodo origen) {
+		List<Nodo> resultado = new ArrayList<>();
+		Map<Nodo, Boolean> vistos = new IdentityHashMap<>();
+		Deque<Nodo> pila = new ArrayDeque<>();
+		pila.push(origen);
+		vistos.put(origen, Boolean.TRUE);
+		while (!pila.isEmpty()) {
+			Nodo n = pila.pop();
+			resultado.add(n);
+			for (Nodo s : n.sucesoras) {
+				if (vistos.put(s, Boolean.TRUE) == null) pila.push(s);
+			}
+		}
+		return resultado;
+	}
+	
+	private void sumarFin(int fin) {
+		finesTempranos.merge(fin, 1, Integer::sum);
+	}
+	
+	private void restarFin(int fin) {
+		finesTempranos.computeIfPresent(fin, (k, c) -> c == 1 ? null : c - 1);
+	}
+	
+	private static class Nodo {
+		private final Tarea tarea;
+		private final List<Nodo> predecesoras = new ArrayList<>();
+		private final List<Nodo> sucesoras = new ArrayList<>();
+		private int inicioTemprano;
+		private int finTemprano;
+		private int inicioTardio;
+		
+		Nodo(Tarea tarea) {
+			this.tarea = tarea;
+		}
+	}
+}
@@ -0,0 +1,64 @@
+package entidades;
+
+import java.time.LocalDate;
+
+/**
+ * Los parámetros de registrarProyecto ya validados, con las fechas parseadas.
+ * Los arma el importador en paralelo y después se registran en bloque sin volver a validarlos.
+ */
+class DatosProyecto {
+	private String[] titulos;
+	private String[] descripciones;
+	private double[] dias;
+	private String domicilio;
+	private String[] cliente;
+	private String inicio;
+	private String fin;
+	private LocalDate fechaInicio;
+	private LocalDate fechaFin;
+
+	// hace todas las validaciones de registrarProyecto, en el mismo orden
+	DatosProyecto(String[] titulos, String[] descripciones, double[] dias, String domicilio,
+			String[] cliente, String inicio, String fin) {
+		HomeSolution.validarDatosProyecto(titulos, descripciones, dias, domicilio, cliente, inicio, fin);
+		this.fechaInicio = HomeSolution.parsearFecha(inicio);
+		this.fechaFin = HomeSolution.parsearFecha(fin);
+		Proyecto.validarFechas(fechaInicio, fechaFin);
+		new Cliente(cliente[0], cliente[2], cliente[1]);
+		this.titulos = titulos;
+		this.descripciones = descripciones;
+		this.dias = dias;
+		this.domicilio = domicilio;
+		this.cliente = cliente;
+		this.inicio = inicio;
+		this.fin = fin;
+	}
+
+	String[] getTitulos() {
+		return titulos;
+	}
+	String[] getDescripciones() {
+		return descripciones;
+	}
+	double[] getDias() {
+		return dias;
+	}
+	String getDomicilio() {
+		return domicilio;
+	}
+	String[] getCliente() {
+		return cliente;
+	}
+	String getInicio() {
+		return inicio;
+	}
+	String getFin() {
+		return fin;
+	}
+	LocalDate getFechaInicio() {
+		return fechaInicio;
+	}
+	LocalDate getFechaFin() {
+		return fechaFin;
+	}
+}
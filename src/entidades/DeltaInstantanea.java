@@ -0,0 +1,179 @@
+package entidades;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Punto de control incremental: solo los empleados y proyectos que cambiaron
+ * desde el anterior. Los deltas de una cadena se numeran siempre hacia adelante; la
+ * instantánea base anota hasta cuál incluye, y la restauración sigue desde el próximo.
+ *
+ * Formato (versión 3):
+ *   "HSDL", versión, id de la cadena, número de secuencia
+ *   contador de proyectos, contador de legajos
+ *   cantidad de empleados y cada empleado (igual que en la instantánea)
+ *   cantidad de proyectos y cada proyecto como largo + registro (igual que en la instantánea)
+ *   crc32 de todo lo anterior
+ *
+ * Al leer, una instancia acumula los cambios de todos los deltas de la cadena;
+ * el último que toca a una entidad es el que queda. La fila de disponibles no se
+ * escribe: cada empleado lleva su turno de entrada, y liberarlo lo marca como cambiado.
+ */
+public class DeltaInstantanea {
+	static final int MAGICO = 0x4853444C; // "HSDL"
+	static final int VERSION = 3;
+	
+	private boolean hayContadores;
+	private int contadorProyectos;
+	private int contadorLegajos;
+	private Map<Integer, Empleado> empleados;
+	private Map<Integer, byte[]> proyectos;
+	
+	public DeltaInstantanea() {
+		this.empleados = new HashMap<>();
+		this.proyectos = new TreeMap<>();
+	}
+	
+	/**
+	 * Escribe un delta con el estado actual de los empleados y proyectos indicados.
+	 * @param idCadena Id de la cadena a la que pertenece.
+	 * @param secuencia Posición del delta en la cadena, empezando en 1.
+	 */
+	static void escribir(HomeSolution sistema, Path archivo, long idCadena, int secuencia,
+			Set<Integer> legajos, Set<Integer> numerosProyecto) throws IOException {
+		List<Empleado> cambiados = new ArrayList<>(legajos.size());
+		for (Integer legajo : legajos) {
+			Empleado e = sistema.buscarEmpleado(legajo);
+			if (e != null) cambiados.add(e);
+		}
+		List<Proyecto> modificados = new ArrayList<>(numerosProyecto.size());
+		for (Integer numero : numerosProyecto) {
+			Proyecto p = sistema.buscarProyecto(numero);
+			if (p != null) modificados.add(p);
+		}
+
+		Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+		CRC32 crc = new CRC32();
+		try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(temporal)), crc))) {
+			out.writeInt(MAGICO);
+			out.writeInt(VERSION);
+			out.writeLong(idCadena);
+			out.writeInt(secuencia);
+			out.writeInt(sistema.getContadorProyectos());
+			out.writeInt(sistema.getContadorLegajos());
+
+			out.writeInt(cambiados.size());
+			for (Empleado e : cambiados) {
+				Instantanea.escribirEmpleado(out, e);
+			}
+
+			out.writeInt(modificados.size());
+			ByteArrayOutputStream registro = new ByteArrayOutputStream();
+			ByteArrayOutputStream cuerpo = new ByteArrayOutputStream();
+			for (Proyecto p : modificados) {
+				registro.reset();
+				DataOutputStream r = new DataOutputStream(registro);
+				Instantanea.escribirProyecto(r, p, cuerpo);
+				r.flush();
+				out.writeInt(registro.size());
+				registro.writeTo(out);
+			}
+			out.flush();
+			out.writeLong(crc.getValue());
+		}
+		Instantanea.reemplazar(temporal, archivo);
+	}
+	
+	/**
+	 * Suma los cambios de un delta a los ya acumulados.
+	 * @return false si el archivo no existe, está incompleto o dañado, o pertenece
+	 * a otra cadena; en ese caso no se acumula nada y la cadena termina ahí.
+	 */
+	boolean leer(Path archivo, long idCadena, int secuencia) throws IOException {
+		if (!Files.exists(archivo)) {
+			return false;
+		}
+		byte[] bytes = Files.readAllBytes(archivo);
+		if (bytes.length < Long.BYTES) {
+			return false;
+		}
+		CRC32 crc = new CRC32();
+		crc.update(bytes, 0, bytes.length - Long.BYTES);
+		if (ByteBuffer.wrap(bytes, bytes.length - Long.BYTES, Long.BYTES).getLong() != crc.getValue()) {
+			return false;
+		}
+
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		if (in.readInt() != MAGICO || in.readInt() != VERSION
+				|| in.readLong() != idCadena || in.readInt() != secuencia) {
+			return false;
+		}
+		hayContadores = true;
+		contadorProyectos = in.readInt();
+		contadorLegajos = in.readInt();
+
+		int cantidadEmpleados = in.readInt();
+		for (int i = 0; i < cantidadEmpleados; i++) {
+			Empleado e = Instantanea.leerEmpleado(in);
+			empleados.put(e.getLegajo(), e);
+		}
+
+		int cantidadProyectos = in.readInt();
+		for (int i = 0; i < cantidadProyectos; i++) {
+			byte[] registro = new byte[in.readInt()];
+			in.readFully(registro);
+			// el registro empieza con el número de proyecto
+			proyectos.put(ByteBuffer.wrap(registro).getInt(), registro);
+		}
+		return true;
+	}
+	
+	boolean hayContadores() {
+		return hayContadores;
+	}
+	
+	int getContadorProyectos() {
+		return contadorProyectos;
+	}
+	
+	int getContadorLegajos() {
+		return contadorLegajos;
+	}
+	
+	int cantidadProyectos() {
+		return proyectos.size();
+	}
+	
+	// pisa los empleados de la instantánea con los del delta, sin moverlos de lugar
+	void aplicarEmpleados(LinkedHashMap<Integer, Empleado> base) {
+		base.putAll(empleados);
+	}
+	
+	// saca el registro más nuevo del proyecto, o null si ningún delta lo tocó
+	byte[] tomarProyecto(int numero) {
+		return proyectos.remove(numero);
+	}
+	
+	// los proyectos que no estaban en la instantánea base, por número
+	Collection<byte[]> proyectosRestantes() {
+		return proyectos.values();
+	}
+}
@@ -1,39 +1,70 @@
 package entidades;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public abstract class Empleado {
 	private int legajo;
 	private String nombre;
-	private boolean disponible;
-	private int retrasosTotales;
+	private AtomicBoolean disponible;
+	private volatile int retrasosTotales;
+	private volatile long turnoEnPool; // cuándo entró por última vez a la fila de disponibles
 	private Map<Integer, Integer> retrasosPorProyecto;
+	private List<ObservadorEmpleado> observadores;
 	
 	public Empleado(int legajo, String nombre) {
 		if(legajo<=0) throw new IllegalArgumentException("El legajo debe ser mayor que 0");
 		if(nombre == null || nombre.isBlank()) throw new IllegalArgumentException("El nombre no puede ser vacío");
 		this.legajo = legajo;
 		this.nombre = nombre;
-		this.disponible = true;
+		this.disponible = new AtomicBoolean(true);
 		this.retrasosTotales = 0;
 		this.retrasosPorProyecto = new HashMap<>();
+		this.observadores = new ArrayList<>();
+	}
+	
+	public void agregarObservador(ObservadorEmpleado observador) {
+		if(observador == null) throw new IllegalArgumentException("El observador no puede ser nulo");
+		observadores.add(observador);
 	}
 	
 	public boolean estaDisponible() {
-		return disponible;
+		return disponible.get();
+	}
+	
+	/**
+	 * Toma al empleado solo si está disponible, con una operación atómica (compare-and-set).
+	 * Si dos hilos intentan tomarlo a la vez, solo uno gana.
+	 * @return true si este llamado lo tomó, false si ya estaba asignado.
+	 */
+	public boolean intentarAsignar() {
+		if(!disponible.compareAndSet(true, false)) return false;
+		avisarCambioDisponibilidad();
+		return true;
 	}
 	
 	public void liberar() {
-		this.disponible = true;
+		if(disponible.compareAndSet(false, true)) {
+			avisarCambioDisponibilidad();
+		}
 	}
 	
 	public void asignar() {
-		this.disponible = false;
+		intentarAsignar();
 	}
 	
-	public void registrarRetrasos(int numProyecto, int dias) {
+	// solo se avisa cuando realmente cambia, asignar dos veces no duplica el aviso
+	private void avisarCambioDisponibilidad() {
+		for(ObservadorEmpleado o : observadores) {
+			o.disponibilidadCambiada(this);
+		}
+	}
+	
+	public synchronized void registrarRetrasos(int numProyecto, int dias) {
 	    if (dias < 0) {
 	        throw new IllegalArgumentException("Los días de retraso no pueden ser negativos");
 	    }
@@ -43,9 +74,34 @@ public abstract class Empleado {
 	    }
 	    retrasosTotales += dias;
 	    retrasosPorProyecto.merge(numProyecto, dias, Integer::sum);
+	    if (dias > 0) {
+	    	for (ObservadorEmpleado o : observadores) {
+	    		o.retrasosCambiados(this);
+	    	}
+	    }
 	}
 
 	
+	// restaura el estado guardado en una instantánea, antes de registrar al empleado en los índices
+	void restaurarEstado(boolean disponible, long turnoEnPool, Map<Integer, Integer> retrasosPorProyecto) {
+		this.disponible.set(disponible);
+		this.turnoEnPool = turnoEnPool;
+		this.retrasosPorProyecto = new HashMap<>(retrasosPorProyecto);
+		int total = 0;
+		for (int dias : retrasosPorProyecto.values()) {
+			total += dias;
+		}
+		this.retrasosTotales = total;
+	}
+	
+	long getTurnoEnPool() {
+		return turnoEnPool;
+	}
+	
+	void setTurnoEnPool(long turnoEnPool) {
+		this.turnoEnPool = turnoEnPool;
+	}
+	
 	public int getLegajo() {
 		return legajo;
 	}
@@ -55,18 +111,21 @@ public abstract class Empleado {
 	public int getRetrasosTotales() {
 		return retrasosTotales;
 	}
-	public Map<Integer, Integer> getRetrasosPorProyecto(){
+	public synchronized Map<Integer, Integer> getRetrasosPorProyecto(){
 		return new HashMap<>(retrasosPorProyecto);
 	}
 	
 	public abstract double calcularSueldo();
 	
+	// costo de un día de trabajo del empleado en una tarea
+	public abstract double calcularCostoDiario();
+	
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
 		sb.append("Empleado [Legajo=").append(legajo)
 			.append(", Nombre=").append(nombre)
-			.append(", Disponibles=").append(disponible)
+			.append(", Disponibles=").append(disponible.get())
 			.append(", Retrasos Totales=").append(retrasosTotales)
 			.append("]");
 		return sb.toString();
@@ -18,6 +18,11 @@ public class EmpleadoContratado extends Empleado {
 		return valorHora * 160;
 	}
 	
+	@Override
+	public double calcularCostoDiario() {
+		return valorHora * 8;
+	}
+	
 	public String toString() {
 		return super.toString() + "[Contratado - Valor hora=" + valorHora + "]";
 	}
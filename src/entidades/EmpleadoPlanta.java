@@ -38,6 +38,11 @@ public class EmpleadoPlanta extends Empleado {
 		return valorDia * diasTrabajados;
 	}
 	
+	@Override
+	public double calcularCostoDiario() {
+		return valorDia;
+	}
+	
 	@Override
 	public String toString() {
 		return super.toString() + " [Planta - Valor día="+ valorDia + ", Categoría=" + categoria + "]";
@@ -0,0 +1,20 @@
+package entidades;
+
+/**
+ * Elige qué empleado libre recibe la próxima tarea en el despacho automático
+ * de HomeSolution. La tarea siempre es la primera de la cola de tareas sin asignar.
+ */
+public interface EstrategiaDespacho {
+	// el que lleva más tiempo libre, en el orden del pool
+	EstrategiaDespacho fifo = HomeSolution::primerEmpleadoDisponible;
+	// el libre con menos retrasos acumulados
+	EstrategiaDespacho menosRetrasos = HomeSolution::primerEmpleadoMenosRetrasos;
+	
+	/**
+	 * Elige sin tomarlo: quien despacha lo asigna después, bajo el mismo lock, y
+	 * el persistente escribe la asignación en el registro antes de aplicarla.
+	 * @param sistema Sistema que despacha.
+	 * @return Un empleado libre, o null si no hay ninguno.
+	 */
+	Empleado elegir(HomeSolution sistema);
+}
@@ -0,0 +1,185 @@
+package entidades;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exporta proyectos, tareas y empleados directo a un Writer u OutputStream, en CSV
+ * o JSON-lines, de a una fila por vez: no arma listas de resultados ni un texto
+ * entero en memoria. Los proyectos que siguen sin cargar de una instantánea mapeada
+ * se leen, se escriben y se descartan.
+ *
+ * Los costos van en cada fila: el del proyecto (con el recargo que corresponda)
+ * y el de cada tarea.
+ */
+public class ExportadorReportes {
+	public static final String csv = "csv";
+	public static final String jsonl = "jsonl";
+
+	private static final String[] COLUMNAS_PROYECTO = {"numero", "estado", "domicilio", "cliente", "email",
+			"telefono", "inicio", "fin_estimado", "fin_real", "costo"};
+	private static final String[] COLUMNAS_TAREA = {"proyecto", "titulo", "descripcion", "dias", "dias_retraso",
+			"terminada", "legajo", "costo"};
+	private static final String[] COLUMNAS_EMPLEADO = {"legajo", "nombre", "tipo", "valor", "categoria",
+			"disponible", "retrasos"};
+
+	private HomeSolution sistema;
+	private String formato;
+
+	/**
+	 * @param formato ExportadorReportes.csv o ExportadorReportes.jsonl.
+	 */
+	public ExportadorReportes(HomeSolution sistema, String formato) {
+		if (sistema == null) {
+			throw new IllegalArgumentException("El sistema no puede ser nulo");
+		}
+		if (!csv.equals(formato) && !jsonl.equals(formato)) {
+			throw new IllegalArgumentException("Formato desconocido: " + formato);
+		}
+		this.sistema = sistema;
+		this.formato = formato;
+	}
+
+	public void exportarProyectos(Writer destino) throws IOException {
+		encabezado(destino, COLUMNAS_PROYECTO);
+		recorrerProyectos(p -> fila(destino, COLUMNAS_PROYECTO, p.getNumeroProyecto(), p.getEstado(),
+				p.getDireccion(), p.getCliente().getNombre(), p.getCliente().getEmail(), p.getCliente().getTelefono(),
+				p.getFechaInicio(), p.getFechaFinEstimado(), p.getFechaFinReal(), p.getCostoProyecto()));
+		destino.flush();
+	}
+
+	public void exportarTareas(Writer destino) throws IOException {
+		encabezado(destino, COLUMNAS_TAREA);
+		recorrerProyectos(p -> {
+			for (Tarea t : p.getTareas().values()) {
+				Empleado e = t.getEmpleadoAsignado();
+				fila(destino, COLUMNAS_TAREA, p.getNumeroProyecto(), t.getTitulo(), t.getDescripcion(),
+						t.getDiasNecesarios(), t.getDiasRetraso(), t.estaTerminada(),
+						e != null ? e.getLegajo() : null, t.calcularCosto());
+			}
+		});
+		destino.flush();
+	}
+
+	public void exportarEmpleados(Writer destino) throws IOException {
+		encabezado(destino, COLUMNAS_EMPLEADO);
+		for (Empleado e : sistema.todosLosEmpleados()) {
+			if (e instanceof EmpleadoPlanta) {
+				EmpleadoPlanta ep = (EmpleadoPlanta) e;
+				fila(destino, COLUMNAS_EMPLEADO, e.getLegajo(), e.getNombre(), "planta", ep.getValorDia(),
+						ep.getCategoria(), e.estaDisponible(), e.getRetrasosTotales());
+			} else {
+				fila(destino, COLUMNAS_EMPLEADO, e.getLegajo(), e.getNombre(), "contratado",
+						((EmpleadoContratado) e).getValorHora(), null, e.estaDisponible(), e.getRetrasosTotales());
+			}
+		}
+		destino.flush();
+	}
+
+	// las versiones con OutputStream escriben en UTF-8 y no cierran el stream
+	public void exportarProyectos(OutputStream destino) throws IOException {
+		exportarProyectos(comoWriter(destino));
+	}
+
+	public void exportarTareas(OutputStream destino) throws IOException {
+		exportarTareas(comoWriter(destino));
+	}
+
+	public void exportarEmpleados(OutputStream destino) throws IOException {
+		exportarEmpleados(comoWriter(destino));
+	}
+
+	// METODOS AUXILIARES
+
+	private interface AccionProyecto {
+		void aplicar(Proyecto proyecto) throws IOException;
+	}
+
+	private void recorrerProyectos(AccionProyecto accion) throws IOException {
+		try {
+			sistema.recorrerProyectos(p -> {
+				try {
+					accion.aplicar(p);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static Writer comoWriter(OutputStream destino) {
+		return new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8));
+	}
+
+	private void encabezado(Writer destino, String[] columnas) throws IOException {
+		if (csv.equals(formato)) {
+			destino.write(String.join(",", columnas));
+			destino.write('\n');
+		}
+	}
+
+	private void fila(Writer destino, String[] columnas, Object... valores) throws IOException {
+		if (csv.equals(formato)) {
+			for (int i = 0; i < valores.length; i++) {
+				if (i > 0) destino.write(',');
+				if (valores[i] != null) escribirCsv(destino, valores[i].toString());
+			}
+		} else {
+			destino.write('{');
+			for (int i = 0; i < valores.length; i++) {
+				if (i > 0) destino.write(',');
+				escribirTextoJson(destino, columnas[i]);
+				destino.write(':');
+				Object v = valores[i];
+				if (v == null || v instanceof Number || v instanceof Boolean) {
+					destino.write(String.valueOf(v));
+				} else {
+					escribirTextoJson(destino, v.toString());
+				}
+			}
+			destino.write('}');
+		}
+		destino.write('\n');
+	}
+
+	// entre comillas solo si hace falta, con las comillas internas duplicadas
+	private static void escribirCsv(Writer destino, String valor) throws IOException {
+		boolean comillas = valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0
+				|| valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0;
+		if (!comillas) {
+			destino.write(valor);
+			return;
+		}
+		destino.write('"');
+		destino.write(valor.replace("\"", "\"\""));
+		destino.write('"');
+	}
+
+	private static void escribirTextoJson(Writer destino, String valor) throws IOException {
+		destino.write('"');
+		for (int i = 0; i < valor.length(); i++) {
+			char c = valor.charAt(i);
+			switch (c) {
+				case '"': destino.write("\\\""); break;
+				case '\\': destino.write("\\\\"); break;
+				case '\n': destino.write("\\n"); break;
+				case '\r': destino.write("\\r"); break;
+				case '\t': destino.write("\\t"); break;
+				default:
+					if (c < 0x20) {
+						destino.write(String.format("\\u%04x", (int) c));
+					} else {
+						destino.write(c);
+					}
+			}
+		}
+		destino.write('"');
+	}
+}
@@ -0,0 +1,120 @@
+package entidades;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cola de prioridad indexada de empleados disponibles, ordenada por retrasos totales
+ * (y por legajo cuando empatan). Guarda la posición de cada empleado en el heap,
+ * así asignar, liberar o sumar retrasos se resuelve en O(log n) sin recorrer el plantel.
+ */
+public class HeapRetrasos implements ObservadorEmpleado {
+	private List<Empleado> heap;
+	private Map<Integer, Integer> posiciones; // legajo -> índice en el heap
+	
+	public HeapRetrasos() {
+		this.heap = new ArrayList<>();
+		this.posiciones = new HashMap<>();
+	}
+	
+	public synchronized void registrar(Empleado empleado) {
+		empleado.agregarObservador(this);
+		if (empleado.estaDisponible()) {
+			insertar(empleado);
+		}
+	}
+	
+	@Override
+	public synchronized void disponibilidadCambiada(Empleado empleado) {
+		if (empleado.estaDisponible()) {
+			insertar(empleado);
+		} else {
+			eliminar(empleado);
+		}
+	}
+	
+	@Override
+	public synchronized void retrasosCambiados(Empleado empleado) {
+		Integer pos = posiciones.get(empleado.getLegajo());
+		if (pos == null) return; // no está disponible, se ubica cuando lo liberen
+		// los retrasos solo crecen, así que la clave aumenta y el empleado baja
+		bajar(pos);
+	}
+	
+	// empleado disponible con menos retrasos, o null si no hay nadie libre
+	public synchronized Empleado minimo() {
+		return heap.isEmpty() ? null : heap.get(0);
+	}
+	
+	// saca al de menos retrasos, o null si no hay nadie libre; igual que PoolEmpleados.sacarPrimero
+	synchronized Empleado sacarMinimo() {
+		if (heap.isEmpty()) {
+			return null;
+		}
+		Empleado minimo = heap.get(0);
+		eliminar(minimo);
+		return minimo;
+	}
+	
+	public synchronized int cantidad() {
+		return heap.size();
+	}
+	
+	private void insertar(Empleado empleado) {
+		if (posiciones.containsKey(empleado.getLegajo())) return;
+		heap.add(empleado);
+		posiciones.put(empleado.getLegajo(), heap.size() - 1);
+		subir(heap.size() - 1);
+	}
+	
+	private void eliminar(Empleado empleado) {
+		Integer pos = posiciones.remove(empleado.getLegajo());
+		if (pos == null) return;
+		Empleado ultimo = heap.remove(heap.size() - 1);
+		if (pos < heap.size()) {
+			heap.set(pos, ultimo);
+			posiciones.put(ultimo.getLegajo(), pos);
+			subir(pos);
+			bajar(posiciones.get(ultimo.getLegajo()));
+		}
+	}
+	
+	private void subir(int i) {
+		while (i > 0) {
+			int padre = (i - 1) / 2;
+			if (comparar(heap.get(i), heap.get(padre)) >= 0) break;
+			intercambiar(i, padre);
+			i = padre;
+		}
+	}
+	
+	private void bajar(int i) {
+		int n = heap.size();
+		while (true) {
+			int izq = 2 * i + 1;
+			int der = izq + 1;
+			int menor = i;
+			if (izq < n && comparar(heap.get(izq), heap.get(menor)) < 0) menor = izq;
+			if (der < n && comparar(heap.get(der), heap.get(menor)) < 0) menor = der;
+			if (menor == i) break;
+			intercambiar(i, menor);
+			i = menor;
+		}
+	}
+	
+	private void intercambiar(int i, int j) {
+		Empleado a = heap.get(i);
+		Empleado b = heap.get(j);
+		heap.set(i, b);
+		heap.set(j, a);
+		posiciones.put(b.getLegajo(), i);
+		posiciones.put(a.getLegajo(), j);
+	}
+	
+	private int comparar(Empleado a, Empleado b) {
+		int c = Integer.compare(a.getRetrasosTotales(), b.getRetrasosTotales());
+		return c != 0 ? c : Integer.compare(a.getLegajo(), b.getLegajo());
+	}
+}
@@ -1,26 +1,72 @@
 package entidades;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 public class HomeSolution implements IHomeSolution{
+	private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+	private static final int DIAS_AVISO_VENCIMIENTO = 7;
+	
 	private Map<Integer, Proyecto> proyectos;
 	private Map<Integer, Empleado> empleados;
 	private int contadorProyectos;
+	private int contadorLegajos;
+	private IndiceEstados indiceEstados;
+	private AgregadosCosto agregadosCosto;
+	private IndiceFechas indiceFechas;
+	private PronosticoCartera pronosticos;
+	private RuedaVencimientos vencimientos;
+	private ColaTareasPendientes tareasPendientes;
+	private volatile boolean pendientesCargadas; // ya se cargaron los proyectos sin finalizar de la instantánea
+	private volatile EstrategiaDespacho despacho; // null si el despacho automático está apagado
+	private boolean despachoDelegado; // lo dispara el envoltorio (concurrente o persistente), no cada operación
+	private AtomicBoolean hayLiberados;
+	private PoolEmpleados poolEmpleados;
+	private HeapRetrasos heapRetrasos;
+	private CambiosPendientes cambios; // lo que cambió desde el último punto de control
+	private InstantaneaMapeada diferidos; // proyectos de una instantánea que todavía no se cargaron
 	
 	public HomeSolution() {
-		this.proyectos = new HashMap<>();
-		this.empleados = new HashMap<>();
+		this(16, 16);
+	}
+	
+	// permite dimensionar los mapas de antemano, por ejemplo al restaurar una instantánea
+	HomeSolution(int capacidadProyectos, int capacidadEmpleados) {
+		this.proyectos = new ConcurrentHashMap<>(capacidadProyectos);
+		this.empleados = new ConcurrentHashMap<>(capacidadEmpleados);
 		this.contadorProyectos = 1;
+		this.contadorLegajos = 1;
+		this.indiceEstados = new IndiceEstados();
+		this.agregadosCosto = new AgregadosCosto();
+		this.indiceFechas = new IndiceFechas();
+		this.pronosticos = new PronosticoCartera();
+		this.vencimientos = new RuedaVencimientos(LocalDate.now(), DIAS_AVISO_VENCIMIENTO);
+		this.tareasPendientes = new ColaTareasPendientes(ColaTareasPendientes.porInicioDelProyecto);
+		this.hayLiberados = new AtomicBoolean();
+		this.poolEmpleados = new PoolEmpleados();
+		this.heapRetrasos = new HeapRetrasos();
+		this.cambios = new CambiosPendientes();
 	}
 	
 	// REGISTRO DE EMPLEADOS
@@ -34,8 +80,7 @@ public class HomeSolution implements IHomeSolution{
 		}
 
 		int legajo = generarLegajo();
-		EmpleadoContratado empleado = new EmpleadoContratado(legajo, nombre, valor);
-		empleados.put(legajo, empleado);
+		agregarEmpleado(new EmpleadoContratado(legajo, nombre, valor));
 	}
 	
 	@Override
@@ -51,43 +96,106 @@ public class HomeSolution implements IHomeSolution{
         }
 
         int legajo = generarLegajo();
-        EmpleadoPlanta empleado = new EmpleadoPlanta(legajo, nombre, valor, categoria);
-        empleados.put(legajo, empleado);
+        agregarEmpleado(new EmpleadoPlanta(legajo, nombre, valor, categoria));
     }
+	
+	private void agregarEmpleado(Empleado empleado) {
+		empleados.put(empleado.getLegajo(), empleado);
+		poolEmpleados.registrar(empleado);
+		heapRetrasos.registrar(empleado);
+		pronosticos.agregarEmpleado(empleado);
+		empleado.agregarObservador(cambios);
+		empleado.agregarObservador(e -> {
+			if (e.estaDisponible()) hayLiberados.set(true);
+		});
+		cambios.marcarEmpleado(empleado.getLegajo());
+	}
+
+	@Override
+	public int[] registrarEmpleados(String[] nombres, double[] valores, String[] categorias) {
+		if (nombres == null || valores == null || nombres.length != valores.length
+				|| (categorias != null && categorias.length != nombres.length)) {
+			throw new IllegalArgumentException("Los arrays de empleados deben tener la misma longitud");
+		}
+
+		// valido todo el lote en una pasada, antes de reservar legajos
+		int primerLegajo = contadorLegajos;
+		Empleado[] lote = new Empleado[nombres.length];
+		for (int i = 0; i < nombres.length; i++) {
+			String categoria = categorias != null ? categorias[i] : null;
+			try {
+				lote[i] = categoria == null
+						? new EmpleadoContratado(primerLegajo + i, nombres[i], valores[i])
+						: new EmpleadoPlanta(primerLegajo + i, nombres[i], valores[i], categoria);
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Empleado en posición " + i + ": " + e.getMessage());
+			}
+		}
+
+		contadorLegajos += lote.length;
+		int[] legajos = new int[lote.length];
+		for (int i = 0; i < lote.length; i++) {
+			agregarEmpleado(lote[i]);
+			legajos[i] = lote[i].getLegajo();
+		}
+		return legajos;
+	}
 
 	private int generarLegajo() {
-		return empleados.keySet().stream().max(Integer::compareTo).orElse(0) + 1;
+		return contadorLegajos++;
 	}
 	
 	// REGISTRO Y GESTION DE PROYECTOS
 	@Override
 	public void registrarProyecto(String[] titulos, String[] descripcion, double[] dias, String domicilio,
 	        String[] cliente, String inicio, String fin) {
-	    validarDatosProyecto(titulos, descripcion, dias, domicilio, cliente, inicio, fin);
-
-	    // parseo fechas antes de validar
-	    LocalDate fechaInicio = parsearFecha(inicio);
-	    LocalDate fechaFin = parsearFecha(fin);
-	    
-	    // valido que la fecha fin no sea anteriror a la inicio
-	    if (fechaFin.isBefore(fechaInicio)) {
-	        throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la fecha de inicio");
+	    // valida y parsea las fechas una sola vez
+	    registrarValidado(new DatosProyecto(titulos, descripcion, dias, domicilio, cliente, inicio, fin));
+	}
+	
+	// registra en orden proyectos ya validados (el importador), sin volver a validar ni parsear fechas
+	void registrarProyectos(List<DatosProyecto> datos) {
+	    for (DatosProyecto d : datos) {
+	        registrarValidado(d);
 	    }
-
+	}
+	
+	void registrarValidado(DatosProyecto datos) {
+	    String[] cliente = datos.getCliente();
 	    Cliente clienteObj = new Cliente(cliente[0], cliente[2], cliente[1]);
 
 	    Map<String, Tarea> tareasMap = new HashMap<>();
-	    for (int i = 0; i < titulos.length; i++) {
-	        Tarea tarea = new Tarea(titulos[i], descripcion[i], (int) dias[i]);
+	    for (int i = 0; i < datos.getTitulos().length; i++) {
+	        Tarea tarea = new Tarea(datos.getTitulos()[i], datos.getDescripciones()[i], (int) datos.getDias()[i]);
 	        tareasMap.put(tarea.getClave(), tarea);
 	    }
 
-	    Proyecto proyecto = new Proyecto(contadorProyectos, clienteObj, domicilio, fechaInicio, tareasMap);
-	    proyectos.put(contadorProyectos, proyecto);
+	    Proyecto proyecto = new Proyecto(contadorProyectos, clienteObj, datos.getDomicilio(), datos.getFechaInicio(), tareasMap);
 	    contadorProyectos++;
+	    agregarProyecto(proyecto);
+	}
+	
+	// registra el proyecto en todos los índices que lo siguen; primero suscribe los observadores
+	// y recién al final lo publica en el mapa, para que nadie lo vea a medio armar
+	private void agregarProyecto(Proyecto proyecto) {
+	    proyecto.agregarObservador(indiceEstados);
+	    proyecto.agregarObservador(agregadosCosto);
+	    proyecto.agregarObservador(indiceFechas);
+	    proyecto.agregarObservador(pronosticos);
+	    proyecto.agregarObservador(vencimientos);
+	    proyecto.agregarObservador(tareasPendientes);
+	    proyecto.agregarObservador(cambios);
+	    indiceEstados.agregar(proyecto);
+	    agregadosCosto.agregar(proyecto);
+	    indiceFechas.agregar(proyecto);
+	    pronosticos.agregar(proyecto);
+	    vencimientos.agregar(proyecto);
+	    tareasPendientes.agregar(proyecto);
+	    cambios.marcarProyecto(proyecto.getNumeroProyecto());
+	    proyectos.put(proyecto.getNumeroProyecto(), proyecto);
 	}
 	
-	private void validarDatosProyecto(String[] titulos, String[] descripcion, double[] dias, String domicilio,
+	static void validarDatosProyecto(String[] titulos, String[] descripcion, double[] dias, String domicilio,
 	        String[] cliente, String inicio, String fin) {
 	    Proyecto.validarArraysTareas(titulos, descripcion, dias);
 	    Proyecto.validarDomicilio(domicilio);
@@ -96,14 +204,11 @@ public class HomeSolution implements IHomeSolution{
 	    if(inicio == null || fin == null) {
 	    	throw new IllegalArgumentException("Las fechas no puden ser nulas");
 	    }
-	    LocalDate fechaInicio = parsearFecha(inicio);
-	    LocalDate fechaFin = parsearFecha(fin);
-	    Proyecto.validarFechas(fechaInicio, fechaFin);
 	}
 	
-	private LocalDate parsearFecha(String fecha) {
+	static LocalDate parsearFecha(String fecha) {
 		try {
-			return LocalDate.parse(fecha, DateTimeFormatter.ofPattern("yyyy-MM-dd"));
+			return LocalDate.parse(fecha, FORMATO_FECHA);
 		} catch (DateTimeParseException e) {
 			throw new IllegalArgumentException("Formato de fecha inválido. Use YYYY-MM-DD");
 		}
@@ -112,80 +217,38 @@ public class HomeSolution implements IHomeSolution{
 	// ASIGNACIÓN Y GESTIÓN DE TAREAS
 	@Override
 	public void asignarResponsableEnTarea(Integer numero, String titulo) {
-		Proyecto proyecto = obtenerProyectoValido(numero);
-		proyecto.validarQuePuedeModificarse();
-
-		Tarea tarea = proyecto.obtenerTarea(titulo);
-		validarTareaNoAsignada(tarea);
-
-		Empleado empleado = buscarEmpleadoDisponible();
-		if (empleado == null) {
-			throw new IllegalStateException("No hay empleados disponibles para asignar");
-		}
-		tarea.asignarEmpleado(empleado);
-		empleado.asignar();
-		proyecto.marcarComoEnCurso();
+		Proyecto proyecto = obtenerProyectoModificable(numero);
+		asignarResponsable(proyecto, proyecto.obtenerTarea(titulo));
 	}
 	
 	@Override
 	public void asignarResponsableMenosRetraso(Integer numero, String titulo) {
-	    Proyecto proyecto = obtenerProyectoValido(numero);
-	    validarProyectoParaModificacion(numero);
-
-	    Tarea tarea = proyecto.obtenerTarea(titulo);
-	    validarTareaNoAsignada(tarea);
-
-	    Empleado empleado = buscarEmpleadoMenosRetrasos();
-	    if (empleado == null) {
-	        throw new IllegalStateException("No hay empleados disponibles para asignar");
-	    }
-
-	    if (!empleado.estaDisponible()) {
-	        empleado.liberar();
-	    }
-
-	    tarea.asignarEmpleado(empleado);
-	    empleado.asignar();
-	    proyecto.marcarComoEnCurso();
+	    Proyecto proyecto = obtenerProyectoModificable(numero);
+	    asignarResponsableMenosRetraso(proyecto, proyecto.obtenerTarea(titulo));
 	}
 	
 	@Override
 	public void registrarRetrasoEnTarea(Integer numero, String titulo, double cantidadDias) {
-	    Proyecto proyecto = obtenerProyectoValido(numero);
-	    validarProyectoParaModificacion(numero);
-
-	    Tarea tarea = proyecto.obtenerTarea(titulo);
-
-	    if (cantidadDias < 0) {
-	        throw new IllegalArgumentException("Los días de retraso no pueden ser negativos");
-	    }
-
-	    tarea.acumularRetraso((int) cantidadDias);
-
-	    //registrar retrasos en el empleado asignado
-	    if (tarea.getEmpleadoAsignado() != null && cantidadDias > 0) {
-	        tarea.getEmpleadoAsignado().registrarRetrasos(numero, (int) cantidadDias);
-	    }
+	    Proyecto proyecto = obtenerProyectoModificable(numero);
+	    registrarRetraso(proyecto, proyecto.obtenerTarea(titulo), cantidadDias);
 	}
 	
 	@Override
 	public void agregarTareaEnProyecto(Integer numero, String titulo, String descripcion, double dias) {
-		Proyecto proyecto = obtenerProyectoValido(numero);
-		validarProyectoParaModificacion(numero);
-		if (dias <= 0) {
-			throw new IllegalArgumentException("Los días deben ser mayores a 0");
-		}
-
-		Tarea nuevaTarea = new Tarea(titulo, descripcion, (int) dias);
-		proyecto.agregarTarea(nuevaTarea);
+		agregarTarea(obtenerProyectoModificable(numero), titulo, descripcion, dias);
+	}
+	
+	@Override
+	public void agregarDependenciaEnProyecto(Integer numero, String titulo, String predecesora) {
+		Proyecto proyecto = obtenerProyectoModificable(numero);
+		proyecto.agregarDependencia(proyecto.obtenerTarea(titulo), proyecto.obtenerTarea(predecesora));
 	}
 	
 	@Override
 	public void finalizarTarea(Integer numero, String titulo) {
-		Proyecto proyecto = obtenerProyectoValido(numero);
-		validarProyectoParaModificacion(numero);
-		
-		proyecto.marcarTareaTerminada(titulo);
+		Proyecto proyecto = obtenerProyectoModificable(numero);
+		proyecto.marcarTareaTerminada(proyecto.obtenerTarea(titulo));
+		despacharAlTerminar();
 	}
 	
 	@Override
@@ -202,92 +265,551 @@ public class HomeSolution implements IHomeSolution{
 	        throw new IllegalArgumentException("La fecha de fin no puede ser anterior a la fecha de inicio");
 	    }
 	    
-	    proyecto.marcarComoFinalizado();
+	    proyecto.marcarComoFinalizado(fechaFin);
+	    despacharAlTerminar();
 	}
 	
 	// REASIGNACIÓN DE EMPLEADOS
 	@Override
 	public void reasignarEmpleadoEnProyecto(Integer numero, Integer legajo, String titulo) {
-		Proyecto proyecto = obtenerProyectoValido(numero);
-		validarProyectoParaModificacion(numero);
+		Proyecto proyecto = obtenerProyectoModificable(numero);
+		reasignarEmpleado(proyecto.obtenerTarea(titulo), legajo);
+		despacharAlTerminar();
+	}
+	
+	@Override
+	public void reasignarEmpleadoConMenosRetraso(Integer numero, String titulo) {
+		Proyecto proyecto = obtenerProyectoModificable(numero);
+		reasignarEmpleadoMenosRetraso(proyecto.obtenerTarea(titulo));
+		despacharAlTerminar();
+	}
+	
+	// OPERACIONES EN LOTE
+	@Override
+	public List<ResultadoComando> ejecutarLote(List<Comando> comandos) {
+		if (comandos == null) {
+			throw new IllegalArgumentException("La lista de comandos no puede ser nula");
+		}
+
+		// agrupo por proyecto manteniendo el orden de los comandos dentro de cada uno
+		Map<Integer, List<Integer>> porProyecto = new LinkedHashMap<>();
+		for (int i = 0; i < comandos.size(); i++) {
+			porProyecto.computeIfAbsent(comandos.get(i).getNumeroProyecto(), k -> new ArrayList<>()).add(i);
+		}
+
+		ResultadoComando[] resultados = new ResultadoComando[comandos.size()];
+		for (Map.Entry<Integer, List<Integer>> grupo : porProyecto.entrySet()) {
+			Proyecto proyecto = null;
+			String errorProyecto = null;
+			try {
+				proyecto = obtenerProyectoValido(grupo.getKey());
+			} catch (IllegalArgumentException e) {
+				errorProyecto = e.getMessage();
+			}
 
+			Map<String, Tarea> tareasResueltas = new HashMap<>();
+			for (int i : grupo.getValue()) {
+				Comando comando = comandos.get(i);
+				if (proyecto == null) {
+					resultados[i] = ResultadoComando.fallido(comando, errorProyecto);
+					continue;
+				}
+				try {
+					Integer legajo = aplicar(proyecto, comando, tareasResueltas);
+					resultados[i] = ResultadoComando.exitoso(comando, legajo);
+				} catch (RuntimeException e) {
+					resultados[i] = ResultadoComando.fallido(comando, e.getMessage());
+				}
+			}
+		}
+		despacharAlTerminar();
+		return Arrays.asList(resultados);
+	}
+	
+	// DESPACHO AUTOMÁTICO
+	
+	/**
+	 * Activa el despacho automático: al terminar cada operación que libera empleados,
+	 * los libres se asignan a las primeras tareas de la cola de tareas sin asignar,
+	 * eligiendo el empleado con la estrategia indicada. Los empleados que ya estaban
+	 * libres se despachan enseguida.
+	 * @throws IllegalStateException si el sistema está envuelto por HomeSolutionConcurrente
+	 * o HomeSolutionPersistente: en ese caso hay que activarlo desde el envoltorio.
+	 */
+	public void activarDespachoAutomatico(EstrategiaDespacho estrategia) {
+		if (despachoDelegado) {
+			throw new IllegalStateException("El despacho lo maneja el envoltorio: activarlo desde él");
+		}
+		usarDespacho(estrategia);
+		despacharLiberados();
+	}
+	
+	public void desactivarDespachoAutomatico() {
+		despacho = null;
+	}
+	
+	// deja el despacho listo para que el próximo despacharLiberados tome a los que ya están libres
+	void usarDespacho(EstrategiaDespacho estrategia) {
+		if (estrategia == null) {
+			throw new IllegalArgumentException("La estrategia no puede ser nula");
+		}
+		despacho = estrategia;
+		hayLiberados.set(true);
+	}
+	
+	// los envoltorios despachan ellos mismos: el concurrente con todas las franjas tomadas,
+	// el persistente para escribir cada asignación en el registro
+	void delegarDespacho() {
+		despachoDelegado = true;
+	}
+	
+	boolean hayDespachoPendiente() {
+		return despacho != null && hayLiberados.get();
+	}
+	
+	/**
+	 * Asigna empleados libres a tareas sin asignar mientras haya de los dos.
+	 * @return Una asignación exitosa por tarea, para quien necesite registrarlas.
+	 */
+	List<ResultadoComando> despacharLiberados() {
+		if (!empezarDespacho()) {
+			return Collections.emptyList();
+		}
+		List<ResultadoComando> asignaciones = new ArrayList<>();
+		ResultadoComando siguiente;
+		while ((siguiente = proximoDespacho()) != null) {
+			Comando asignacion = siguiente.getComando();
+			asignarEmpleadoEnTarea(asignacion.getNumeroProyecto(), asignacion.getTitulo(), siguiente.getLegajoAsignado());
+			asignaciones.add(siguiente);
+		}
+		return asignaciones;
+	}
+	
+	// consume el aviso de empleados liberados; true si hay que despachar
+	boolean empezarDespacho() {
+		if (despacho == null || !hayLiberados.getAndSet(false)) {
+			return false;
+		}
+		cargarProyectosSinFinalizar();
+		return true;
+	}
+	
+	/**
+	 * La próxima asignación del despacho automático, sin aplicarla: la primera tarea de la
+	 * cola con el empleado que elige la estrategia. Las entradas viejas de la cola (tareas
+	 * que ya tienen empleado o terminaron) se descartan sin elegir a nadie.
+	 * @return La asignación, o null si no quedan tareas o empleados libres.
+	 */
+	ResultadoComando proximoDespacho() {
+		EstrategiaDespacho estrategia = despacho;
+		if (estrategia == null) {
+			return null;
+		}
+		TareaPendiente siguiente;
+		while ((siguiente = tareasPendientes.primera()) != null) {
+			Proyecto proyecto = buscarProyecto(siguiente.getNumeroProyecto());
+			Tarea tarea = proyecto.obtenerTarea(siguiente.getTitulo());
+			if (tarea.getEmpleadoAsignado() != null || tarea.estaTerminada()) {
+				tareasPendientes.tareaCambiada(proyecto, tarea);
+				continue;
+			}
+			Empleado empleado = estrategia.elegir(this);
+			if (empleado == null) {
+				return null;
+			}
+			return ResultadoComando.exitoso(
+					Comando.asignar(siguiente.getNumeroProyecto(), siguiente.getTitulo()), empleado.getLegajo());
+		}
+		return null;
+	}
+	
+	// ASIGNACIÓN ÓPTIMA EN LOTE
+	
+	/**
+	 * Asigna a la vez todas las tareas sin asignar de proyectos pendientes y activos
+	 * con los empleados libres, minimizando la suma de los costos. El costo de un par
+	 * es el costo diario del empleado por los días de la tarea (como Tarea.calcularCosto)
+	 * más pesoRetraso por cada día de retraso que ya acumuló el empleado.
+	 * Si hay más tareas que empleados, quedan sin asignar las que sumarían más costo;
+	 * si hay más empleados, quedan libres los más caros.
+	 * Se aplica todo o nada: si algún empleado dejó de estar libre, no se asigna ninguno.
+	 * @param pesoRetraso Costo que se suma por cada día de retraso del empleado; 0 lo ignora.
+	 * @return Una asignación exitosa por tarea asignada.
+	 * @throws IllegalStateException si algún empleado elegido fue tomado por otra operación.
+	 */
+	public List<ResultadoComando> asignarPendientesAlMenorCosto(double pesoRetraso) {
+		List<ResultadoComando> plan = planificarAsignacionOptima(pesoRetraso);
+
+		// primero se toman todos los empleados, así si falla uno no queda nada a medias
+		List<Empleado> tomados = new ArrayList<>(plan.size());
+		for (ResultadoComando r : plan) {
+			Empleado empleado = empleados.get(r.getLegajoAsignado());
+			if (!empleado.intentarAsignar()) {
+				for (Empleado t : tomados) {
+					t.liberar();
+				}
+				throw new IllegalStateException("Un empleado elegido dejó de estar disponible");
+			}
+			tomados.add(empleado);
+		}
+
+		for (int i = 0; i < plan.size(); i++) {
+			Comando asignacion = plan.get(i).getComando();
+			Proyecto proyecto = buscarProyecto(asignacion.getNumeroProyecto());
+			proyecto.obtenerTarea(asignacion.getTitulo()).asignarEmpleadoTomado(tomados.get(i));
+			proyecto.marcarComoEnCurso();
+		}
+		return plan;
+	}
+	
+	/**
+	 * Las asignaciones que haría asignarPendientesAlMenorCosto, sin tomar a ningún empleado.
+	 */
+	List<ResultadoComando> planificarAsignacionOptima(double pesoRetraso) {
+		if (pesoRetraso < 0) {
+			throw new IllegalArgumentException("El peso del retraso no puede ser negativo");
+		}
+		cargarProyectosSinFinalizar();
+		List<TareaPendiente> pendientes = tareasPendientes.todas();
+		List<Empleado> libres = new ArrayList<>();
+		for (Object legajo : poolEmpleados.legajos()) {
+			libres.add(empleados.get((Integer) legajo));
+		}
+		if (pendientes.isEmpty() || libres.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		double[] dias = new double[pendientes.size()];
+		for (int i = 0; i < dias.length; i++) {
+			dias[i] = pendientes.get(i).getDiasNecesarios() + pendientes.get(i).getDiasRetraso();
+		}
+		double[] costoDiario = new double[libres.size()];
+		double[] penalidad = new double[libres.size()];
+		for (int j = 0; j < costoDiario.length; j++) {
+			costoDiario[j] = libres.get(j).calcularCostoDiario();
+			penalidad[j] = pesoRetraso * libres.get(j).getRetrasosTotales();
+		}
+
+		// el lado más chico va como filas; empleadoDeTarea[i] queda en -1 si la tarea no se asigna
+		int[] empleadoDeTarea = new int[dias.length];
+		Arrays.fill(empleadoDeTarea, -1);
+		if (dias.length <= costoDiario.length) {
+			int[] columna = AsignacionOptima.resolver(dias, new double[dias.length], costoDiario, penalidad);
+			System.arraycopy(columna, 0, empleadoDeTarea, 0, columna.length);
+		} else {
+			int[] columna = AsignacionOptima.resolver(costoDiario, penalidad, dias, new double[dias.length]);
+			for (int j = 0; j < columna.length; j++) {
+				empleadoDeTarea[columna[j]] = j;
+			}
+		}
+
+		List<ResultadoComando> plan = new ArrayList<>();
+		for (int i = 0; i < empleadoDeTarea.length; i++) {
+			if (empleadoDeTarea[i] < 0) continue;
+			TareaPendiente t = pendientes.get(i);
+			plan.add(ResultadoComando.exitoso(Comando.asignar(t.getNumeroProyecto(), t.getTitulo()),
+					libres.get(empleadoDeTarea[i]).getLegajo()));
+		}
+		return plan;
+	}
+	
+	private void despacharAlTerminar() {
+		if (!despachoDelegado) {
+			despacharLiberados();
+		}
+	}
+	
+	// aplica un comando sobre un proyecto ya resuelto, buscando cada tarea una sola vez;
+	// devuelve el legajo que quedó asignado a la tarea, o null si el comando no asigna
+	private Integer aplicar(Proyecto proyecto, Comando comando, Map<String, Tarea> tareasResueltas) {
+		proyecto.validarQuePuedeModificarse();
+		String tipo = comando.getTipo();
+		if (tipo.equals(Comando.agregarTarea)) {
+			Tarea nueva = agregarTarea(proyecto, comando.getTitulo(), comando.getDescripcion(), comando.getDias());
+			tareasResueltas.put(comando.getTitulo(), nueva);
+			return null;
+		}
+
+		Tarea tarea = tareasResueltas.get(comando.getTitulo());
+		if (tarea == null) {
+			tarea = proyecto.obtenerTarea(comando.getTitulo());
+			tareasResueltas.put(comando.getTitulo(), tarea);
+		}
+		switch (tipo) {
+			case Comando.asignar: asignarResponsable(proyecto, tarea); break;
+			case Comando.asignarMenosRetraso: asignarResponsableMenosRetraso(proyecto, tarea); break;
+			case Comando.registrarRetraso: registrarRetraso(proyecto, tarea, comando.getDias()); break;
+			case Comando.finalizarTarea: proyecto.marcarTareaTerminada(tarea); break;
+			case Comando.reasignar: reasignarEmpleado(tarea, comando.getLegajo()); break;
+			case Comando.reasignarMenosRetraso: reasignarEmpleadoMenosRetraso(tarea); break;
+			default: throw new IllegalArgumentException("Tipo de comando desconocido: " + tipo);
+		}
+		Empleado responsable = tarea.getEmpleadoAsignado();
+		boolean asigna = tipo.equals(Comando.asignar) || tipo.equals(Comando.asignarMenosRetraso)
+				|| tipo.equals(Comando.reasignar) || tipo.equals(Comando.reasignarMenosRetraso);
+		return asigna && responsable != null ? responsable.getLegajo() : null;
+	}
+	
+	// asigna un empleado puntual a una tarea sin responsable; se usa al reproducir el registro de mutaciones
+	void asignarEmpleadoEnTarea(Integer numero, String titulo, Integer legajo) {
+		Proyecto proyecto = obtenerProyectoModificable(numero);
 		Tarea tarea = proyecto.obtenerTarea(titulo);
+		validarTareaNoAsignada(tarea);
+
+		Empleado empleado = obtenerEmpleado(legajo);
+		if (empleado == null || !empleado.intentarAsignar()) {
+			throw new IllegalStateException("El empleado no existe o no está disponible");
+		}
+		tarea.asignarEmpleadoTomado(empleado);
+		proyecto.marcarComoEnCurso();
+	}
+	
+	// legajo del empleado que tomaría asignarResponsableEnTarea (o MenosRetraso, según la estrategia),
+	// sin tomarlo y con las mismas validaciones; así el persistente escribe la asignación antes de aplicarla
+	Integer elegirResponsable(Integer numero, String titulo, EstrategiaDespacho estrategia) {
+		Proyecto proyecto = obtenerProyectoModificable(numero);
+		validarTareaNoAsignada(proyecto.obtenerTarea(titulo));
+		Empleado empleado = estrategia.elegir(this);
+		if (empleado == null) {
+			throw new IllegalStateException("No hay empleados disponibles para asignar");
+		}
+		return empleado.getLegajo();
+	}
+	
+	// lo mismo para reasignarEmpleadoConMenosRetraso
+	Integer elegirReemplazo(Integer numero, String titulo) {
+		Tarea tarea = obtenerProyectoModificable(numero).obtenerTarea(titulo);
+		if (tarea.getEmpleadoAsignado() == null) {
+			throw new IllegalStateException("La tarea no tiene empleado asignado previamente");
+		}
+		Empleado empleado = primerEmpleadoMenosRetrasos();
+		if (empleado == null) {
+			throw new IllegalStateException("No hay empleados disponibles");
+		}
+		return empleado.getLegajo();
+	}
+	
+	// legajo del responsable actual de una tarea, o null si no tiene
+	Integer legajoResponsable(Integer numero, String titulo) {
+		Empleado responsable = obtenerProyectoValido(numero).obtenerTarea(titulo).getEmpleadoAsignado();
+		return responsable != null ? responsable.getLegajo() : null;
+	}
+	
+	// estas operaciones reciben el proyecto y la tarea ya resueltos y validados
+	
+	private void asignarResponsable(Proyecto proyecto, Tarea tarea) {
+		validarTareaNoAsignada(tarea);
+
+		Empleado empleado = tomarEmpleadoDisponible();
+		if (empleado == null) {
+			throw new IllegalStateException("No hay empleados disponibles para asignar");
+		}
+		tarea.asignarEmpleadoTomado(empleado);
+		proyecto.marcarComoEnCurso();
+	}
+	
+	private void asignarResponsableMenosRetraso(Proyecto proyecto, Tarea tarea) {
+	    validarTareaNoAsignada(tarea);
+
+	    Empleado empleado = tomarEmpleadoMenosRetrasos();
+	    if (empleado == null) {
+	        throw new IllegalStateException("No hay empleados disponibles para asignar");
+	    }
+
+	    tarea.asignarEmpleadoTomado(empleado);
+	    proyecto.marcarComoEnCurso();
+	}
+	
+	private void registrarRetraso(Proyecto proyecto, Tarea tarea, double cantidadDias) {
+	    if (cantidadDias < 0) {
+	        throw new IllegalArgumentException("Los días de retraso no pueden ser negativos");
+	    }
+
+	    tarea.acumularRetraso((int) cantidadDias);
 
+	    //registrar retrasos en el empleado asignado
+	    if (tarea.getEmpleadoAsignado() != null && cantidadDias > 0) {
+	        tarea.getEmpleadoAsignado().registrarRetrasos(proyecto.getNumeroProyecto(), (int) cantidadDias);
+	    }
+	}
+	
+	private Tarea agregarTarea(Proyecto proyecto, String titulo, String descripcion, double dias) {
+		if (dias <= 0) {
+			throw new IllegalArgumentException("Los días deben ser mayores a 0");
+		}
+
+		Tarea nuevaTarea = new Tarea(titulo, descripcion, (int) dias);
+		proyecto.agregarTarea(nuevaTarea);
+		return nuevaTarea;
+	}
+	
+	private void reasignarEmpleado(Tarea tarea, Integer legajo) {
 		if (tarea.getEmpleadoAsignado() == null) {
 			throw new IllegalStateException("La tarea no tiene empleado asignado previamente");
 		}
 
 		Empleado nuevoEmpleado = obtenerEmpleado(legajo);
-		if (nuevoEmpleado == null || !nuevoEmpleado.estaDisponible()) {
+		// primero tomo al nuevo, así si otro hilo lo ganó el anterior sigue asignado
+		if (nuevoEmpleado == null || !nuevoEmpleado.intentarAsignar()) {
 			throw new IllegalStateException("El empleado no existe o no está disponible");
 		}
 
 		tarea.liberarEmpleado();
-		tarea.asignarEmpleado(nuevoEmpleado);
+		tarea.asignarEmpleadoTomado(nuevoEmpleado);
 	}
 	
-	@Override
-	public void reasignarEmpleadoConMenosRetraso(Integer numero, String titulo) {
-		Proyecto proyecto = obtenerProyectoValido(numero);
-		validarProyectoParaModificacion(numero);
-
-		Tarea tarea = proyecto.obtenerTarea(titulo);
-
+	private void reasignarEmpleadoMenosRetraso(Tarea tarea) {
 		if (tarea.getEmpleadoAsignado() == null) {
 			throw new IllegalStateException("La tarea no tiene empleado asignado previamente");
 		}
 
-		Empleado nuevoEmpleado = buscarEmpleadoMenosRetrasos();
+		Empleado nuevoEmpleado = tomarEmpleadoMenosRetrasos();
 		if (nuevoEmpleado == null) {
 			throw new IllegalStateException("No hay empleados disponibles");
 		}
-		if (!nuevoEmpleado.estaDisponible()) {
-	        nuevoEmpleado.liberar();
-	    }
 
 		tarea.liberarEmpleado();
-		tarea.asignarEmpleado(nuevoEmpleado);
+		tarea.asignarEmpleadoTomado(nuevoEmpleado);
 	}
 	
 	// CONSULTAS
 	@Override
 	public double costoProyecto(Integer numero) {
-		Proyecto proyecto = proyectos.get(numero);
+		Proyecto proyecto = buscarProyecto(numero);
 		return proyecto != null ? proyecto.getCostoProyecto() : 0.0;
 	}
 	
 	@Override
     public List<Tupla<Integer, String>> proyectosFinalizados() {
-        return proyectos.values().stream()
-                .filter(p -> p.getEstado().equals(Estado.finalizado))
-                .map(p -> new Tupla<>(p.getNumeroProyecto(), p.getDireccion())).collect(Collectors.toList());
+        return indiceEstados.proyectosEn(Estado.finalizado);
     }
 	
 	@Override
     public List<Tupla<Integer, String>> proyectosPendientes() {
-        return proyectos.values().stream()
-                .filter(p -> p.getEstado().equals(Estado.pendiente))
-                .map(p -> new Tupla<>(p.getNumeroProyecto(), p.getDireccion()))
-                .collect(Collectors.toList());
+        return indiceEstados.proyectosEn(Estado.pendiente);
     }
 	
 	@Override
 	public List<Tupla<Integer, String>> proyectosActivos() {
-		return proyectos.values().stream().filter(p -> p.getEstado().equals(Estado.activo))
-				.map(p -> new Tupla<>(p.getNumeroProyecto(), p.getDireccion())).collect(Collectors.toList());
+		return indiceEstados.proyectosEn(Estado.activo);
+	}
+	
+	@Override
+	public Pagina<Tupla<Integer, String>> proyectosPorEstado(String estado, int tamanio, String cursor) {
+		Pagina.validarTamanio(tamanio);
+		return indiceEstados.pagina(estado, Pagina.claveDe(cursor), tamanio);
+	}
+	
+	// proyectos que empiezan entre dos fechas (incluidas), ordenados por fecha de inicio
+	public List<Tupla<Integer, String>> proyectosQueEmpiezanEntre(LocalDate desde, LocalDate hasta) {
+		return indiceFechas.queEmpiezanEntre(desde, hasta);
+	}
+	
+	// proyectos cuya fecha de fin estimada cae entre dos fechas (incluidas)
+	public List<Tupla<Integer, String>> proyectosQueTerminanEntre(LocalDate desde, LocalDate hasta) {
+		return indiceFechas.queTerminanEntre(desde, hasta);
+	}
+	
+	// títulos de las tareas del camino crítico, en el orden en que se ejecutan
+	public List<String> caminoCritico(Integer numero) {
+		List<String> titulos = new ArrayList<>();
+		for (Tarea t : obtenerProyectoValido(numero).getCaminoCritico()) {
+			titulos.add(t.getTitulo());
+		}
+		return titulos;
+	}
+	
+	// fin según las dependencias y los retrasos, con las tareas independientes en paralelo
+	public LocalDate fechaFinPlanificada(Integer numero) {
+		return obtenerProyectoValido(numero).getFechaFinPlanificada();
+	}
+	
+	/**
+	 * Fecha de fin y costo esperados del proyecto, con los retrasos registrados.
+	 * Las tareas sin responsable se cuentan al costo diario promedio de los empleados.
+	 */
+	public Pronostico pronostico(Integer numero) {
+		return pronosticos.pronostico(obtenerProyectoValido(numero));
+	}
+	
+	// pronósticos de los proyectos sin finalizar, ordenados por fecha de fin pronosticada
+	public List<Pronostico> pronosticosSinFinalizar() {
+		cargarProyectosSinFinalizar();
+		return pronosticos.todos();
+	}
+	
+	public double costoPronosticadoCartera() {
+		cargarProyectosSinFinalizar();
+		return pronosticos.costoTotal();
+	}
+	
+	// la última fecha de fin pronosticada entre los proyectos sin finalizar, o null si no hay
+	public LocalDate finPronosticadoCartera() {
+		cargarProyectosSinFinalizar();
+		return pronosticos.finMasTardio();
+	}
+	
+	// recibe los avisos de proyectos próximos a vencer o vencidos sin finalizar
+	public void agregarObservadorVencimientos(ObservadorVencimientos observador) {
+		vencimientos.agregarObservador(observador);
+	}
+	
+	// avanza el calendario de vencimientos hasta hoy y entrega los avisos
+	public void revisarVencimientos(LocalDate hoy) {
+		if (hoy == null) {
+			throw new IllegalArgumentException("La fecha no puede ser nula");
+		}
+		vencimientos.avanzarHasta(hoy);
+	}
+	
+	/**
+	 * Las próximas tareas sin asignar de toda la cartera, según la prioridad elegida
+	 * (por defecto, las de proyectos que empiezan antes).
+	 * @return Tuplas (número de proyecto, título de la tarea).
+	 */
+	public List<Tupla<Integer, String>> proximasTareasSinAsignar(int cantidad) {
+		if (cantidad <= 0) {
+			throw new IllegalArgumentException("La cantidad debe ser mayor a 0");
+		}
+		cargarProyectosSinFinalizar();
+		return tareasPendientes.siguientes(cantidad);
+	}
+	
+	public void ordenarTareasSinAsignarPor(Comparator<TareaPendiente> prioridad) {
+		tareasPendientes.ordenarPor(prioridad);
 	}
 	
 	@Override
 	public Object[] empleadosNoAsignados() {
-	    return empleados.values().stream()
-	            .filter(Empleado::estaDisponible)
-	            .map(Empleado::getLegajo)  //solamente devuelve los legajos
-	            .toArray();
+	    return poolEmpleados.legajos(); //solamente devuelve los legajos
+	}
+	
+	// costo acumulado de todos los proyectos en un estado
+	public double costoTotalPorEstado(String estado) {
+		return agregadosCosto.costoPorEstado(estado);
+	}
+	
+	// costo acumulado de los proyectos de un cliente (por nombre)
+	public double costoTotalPorCliente(String cliente) {
+		return agregadosCosto.costoPorCliente(cliente);
+	}
+	
+	// costo acumulado de los proyectos que empiezan en un mes
+	public double costoTotalPorMes(YearMonth mes) {
+		return agregadosCosto.costoPorMes(mes);
+	}
+	
+	public Map<String, Double> costosPorCliente() {
+		return agregadosCosto.costosPorCliente();
+	}
+	
+	public Map<YearMonth, Double> costosPorMesDeInicio() {
+		return agregadosCosto.costosPorMes();
 	}
 	
 	@Override
     public boolean estaFinalizado(Integer numero) {
-        Proyecto proyecto = proyectos.get(numero);
+        Proyecto proyecto = buscarProyecto(numero);
         return proyecto != null && proyecto.estaFinalizado();
     }
 	
@@ -299,7 +821,7 @@ public class HomeSolution implements IHomeSolution{
 	
 	@Override
 	public List<Tupla<Integer, String>> empleadosAsignadosAProyecto(Integer numero) {
-	    Proyecto proyecto = proyectos.get(numero);
+	    Proyecto proyecto = buscarProyecto(numero);
 	    if (proyecto == null) {
 	        return Collections.emptyList();
 	    }
@@ -312,7 +834,7 @@ public class HomeSolution implements IHomeSolution{
 	// REQUERIMIENTOS NUEVOS
 	@Override
 	public Object[] tareasProyectoNoAsignadas(Integer numero) {
-	    Proyecto proyecto = proyectos.get(numero);
+	    Proyecto proyecto = buscarProyecto(numero);
 	    if (proyecto == null) {
 	        throw new IllegalArgumentException("Proyecto inexistente");
 	    }
@@ -325,7 +847,7 @@ public class HomeSolution implements IHomeSolution{
 
 	@Override
 	public Object[] tareasDeUnProyecto(Integer numero) {
-		Proyecto proyecto = proyectos.get(numero);
+		Proyecto proyecto = buscarProyecto(numero);
 		if (proyecto == null) {
 			return new Object[0];
 		}
@@ -334,7 +856,7 @@ public class HomeSolution implements IHomeSolution{
 	
 	@Override
 	public String consultarDomicilioProyecto(Integer numero) {
-		Proyecto proyecto = proyectos.get(numero);
+		Proyecto proyecto = buscarProyecto(numero);
 		return proyecto != null ? proyecto.getDireccion() : null;
 	}
 	
@@ -351,19 +873,197 @@ public class HomeSolution implements IHomeSolution{
                 .collect(Collectors.toList());
     }
 	
+	// los legajos se dan en orden y no se borran, así que la página se recorre por legajo
+	// sin ordenar el mapa: cuesta O(tamaño de la página)
+	@Override
+	public Pagina<Tupla<Integer, String>> empleados(int tamanio, String cursor) {
+		Pagina.validarTamanio(tamanio);
+		int ultimoLegajo = contadorLegajos - 1;
+		int legajo = Pagina.claveDe(cursor) + 1;
+		// no más de los legajos que quedan: el tamaño lo elige quien llama y puede ser enorme
+		List<Tupla<Integer, String>> elementos = new ArrayList<>(Math.max(0, Math.min(tamanio, ultimoLegajo - legajo + 1)));
+		for (; legajo <= ultimoLegajo && elementos.size() < tamanio; legajo++) {
+			Empleado e = empleados.get(legajo);
+			if (e != null) {
+				elementos.add(new Tupla<>(e.getLegajo(), e.getNombre()));
+			}
+		}
+		return new Pagina<>(elementos, legajo <= ultimoLegajo ? Pagina.cursorDe(legajo - 1) : null);
+	}
+	
 	@Override
     public String consultarProyecto(Integer numero) {
-        Proyecto proyecto = proyectos.get(numero);
+        Proyecto proyecto = buscarProyecto(numero);
         return proyecto != null ? proyecto.toString() : "Proyecto no encontrado";
     }
 	
+	// ACCESO PARA INSTANTÁNEAS
+	
+	int getContadorProyectos() {
+		return contadorProyectos;
+	}
+	
+	int getContadorLegajos() {
+		return contadorLegajos;
+	}
+	
+	void restaurarContadores(int contadorProyectos, int contadorLegajos) {
+		this.contadorProyectos = contadorProyectos;
+		this.contadorLegajos = contadorLegajos;
+	}
+	
+	// empleados en el orden en que los tomaría el pool (primero los disponibles, en orden FIFO)
+	List<Empleado> empleadosEnOrdenDePool() {
+		List<Empleado> orden = new ArrayList<>(empleados.size());
+		for (Object legajo : poolEmpleados.legajos()) {
+			orden.add(empleados.get(legajo));
+		}
+		for (Empleado e : empleados.values()) {
+			if (!e.estaDisponible()) {
+				orden.add(e);
+			}
+		}
+		return orden;
+	}
+	
+	// arma los proyectos que falten de una instantánea mapeada
+	Collection<Proyecto> todosLosProyectos() {
+		if (diferidos != null) {
+			for (Integer numero : diferidos.pendientes()) {
+				buscarProyecto(numero);
+			}
+		}
+		return proyectos.values();
+	}
+	
+	// recorre todos los proyectos sin dejar en memoria los que siguen sin cargar de una
+	// instantánea mapeada: esos se leen, se entregan y se descartan
+	void recorrerProyectos(Consumer<Proyecto> accion) {
+		Set<Integer> sinCargar = diferidos != null ? diferidos.pendientes() : Collections.emptySet();
+		for (Proyecto p : proyectos.values()) {
+			if (!sinCargar.contains(p.getNumeroProyecto())) accion.accept(p);
+		}
+		for (Integer numero : sinCargar) {
+			Proyecto p = proyectos.get(numero); // pudo cargarse mientras tanto
+			if (p == null) p = diferidos.leer(numero, this);
+			if (p == null) p = buscarProyecto(numero); // se estaba cargando
+			if (p != null) accion.accept(p);
+		}
+	}
+	
+	Collection<Empleado> todosLosEmpleados() {
+		return empleados.values();
+	}
+	
+	// solo los proyectos que ya están en memoria
+	Collection<Proyecto> proyectosMaterializados() {
+		return proyectos.values();
+	}
+	
+	// los proyectos en memoria y los números de los que siguen sin armar, tomados juntos:
+	// armar un proyecto toma el mismo lock, así ninguno queda en los dos ni en ninguno
+	Tupla<List<Proyecto>, Set<Integer>> proyectosYPendientes() {
+		if (diferidos == null) {
+			return new Tupla<>(new ArrayList<>(proyectos.values()), Collections.emptySet());
+		}
+		synchronized (diferidos) {
+			return new Tupla<>(new ArrayList<>(proyectos.values()), diferidos.pendientes());
+		}
+	}
+	
+	CambiosPendientes getCambios() {
+		return cambios;
+	}
+	
+	InstantaneaMapeada getDiferidos() {
+		return diferidos;
+	}
+	
+	void usarDiferidos(InstantaneaMapeada diferidos) {
+		this.diferidos = diferidos;
+	}
+	
+	// cuenta en los índices un proyecto que sigue sin cargar
+	void restaurarCabecera(CabeceraProyecto cabecera) {
+		indiceEstados.agregar(cabecera);
+		agregadosCosto.agregar(cabecera);
+		indiceFechas.agregar(cabecera);
+		vencimientos.agregar(cabecera);
+	}
+	
+	Empleado buscarEmpleado(int legajo) {
+		return empleados.get(legajo);
+	}
+	
+	// agregan entidades ya armadas, sin validar ni generar números
+	void restaurarEmpleado(Empleado empleado) {
+		agregarEmpleado(empleado);
+	}
+	
+	void restaurarProyecto(Proyecto proyecto) {
+		agregarProyecto(proyecto);
+	}
+	
 	// METODOS AUXILIARES
 	
+	// las tareas de un proyecto sin cargar no están en la cola; los finalizados no tienen pendientes
+	private void cargarProyectosSinFinalizar() {
+		if (diferidos == null || pendientesCargadas) {
+			return;
+		}
+		for (String estado : new String[] {Estado.pendiente, Estado.activo}) {
+			for (Tupla<Integer, String> t : indiceEstados.proyectosEn(estado)) {
+				if (diferidos.contiene(t.getValor1())) {
+					buscarProyecto(t.getValor1());
+				}
+			}
+		}
+		pendientesCargadas = true;
+	}
+	
+	// busca en memoria y, si no está, lo arma desde la instantánea mapeada
+	Proyecto buscarProyecto(Integer numero) {
+		if (numero == null) {
+			return null;
+		}
+		Proyecto proyecto = proyectos.get(numero);
+		if (proyecto == null && diferidos != null) {
+			// otro hilo puede estar armándolo: ya salió del índice pero todavía no está en el mapa,
+			// así que las dos consultas se repiten con el lock con el que se arma
+			synchronized (diferidos) {
+				proyecto = proyectos.get(numero);
+				if (proyecto == null && diferidos.contiene(numero)) {
+					proyecto = armarDiferido(numero);
+				}
+			}
+		}
+		return proyecto;
+	}
+	
+	// los índices ya lo contaban por su cabecera, así que solo se suscriben
+	private Proyecto armarDiferido(Integer numero) {
+		return proyectos.computeIfAbsent(numero, n -> {
+			Proyecto cargado = diferidos.materializar(n, this);
+			if (cargado != null) {
+				cargado.agregarObservador(indiceEstados);
+				cargado.agregarObservador(agregadosCosto);
+				cargado.agregarObservador(indiceFechas);
+				cargado.agregarObservador(pronosticos);
+				cargado.agregarObservador(vencimientos);
+				cargado.agregarObservador(tareasPendientes);
+				cargado.agregarObservador(cambios);
+				pronosticos.agregar(cargado);
+				tareasPendientes.agregar(cargado);
+			}
+			return cargado;
+		});
+	}
+	
 	private Proyecto obtenerProyectoValido(Integer numero) {
 		if (numero == null || numero <= 0) {
 			throw new IllegalArgumentException("Número de proyecto inválido");
 		}
-		Proyecto proyecto = proyectos.get(numero);
+		Proyecto proyecto = buscarProyecto(numero);
 		if (proyecto == null) {
 			throw new IllegalArgumentException("Proyecto no encontrado");
 		}
@@ -375,9 +1075,11 @@ public class HomeSolution implements IHomeSolution{
 //			throw new IllegalArgumentException("El proyecto está finalizado");
 //		}
 //	}
-	private void validarProyectoParaModificacion(Integer numero) {
+	// busca el proyecto una sola vez y valida que no esté finalizado
+	private Proyecto obtenerProyectoModificable(Integer numero) {
 		Proyecto proyecto = obtenerProyectoValido(numero);
 		proyecto.validarQuePuedeModificarse();
+		return proyecto;
 	}
 
     private Tarea obtenerTarea(Proyecto proyecto, String titulo) {
@@ -394,38 +1096,81 @@ public class HomeSolution implements IHomeSolution{
 		return empleados.get(legajo);
 	}
 	
-	private Empleado buscarEmpleadoDisponible() {
-		return empleados.values().stream().filter(Empleado::estaDisponible).findFirst().orElse(null);
+	// los que tomarían tomarEmpleadoDisponible y tomarEmpleadoMenosRetrasos, sin tomarlos
+	Empleado primerEmpleadoDisponible() {
+		return poolEmpleados.primero();
+	}
+	
+	Empleado primerEmpleadoMenosRetrasos() {
+		return heapRetrasos.minimo();
 	}
 	
-	private Empleado buscarEmpleadoMenosRetrasos() {
-	    return empleados.values().stream()
-	            .filter(Empleado::estaDisponible)
-	            .min(Comparator.comparingInt(Empleado::getRetrasosTotales))
-	            .orElse(null);
+	// saca al primero de la fila y lo toma con compare-and-set; si otro hilo lo ganó,
+	// ya salió de la fila, así que cada intento avanza hasta tomar uno o vaciarla.
+	// Si el perdedor vuelve a quedar libre, su aviso de disponibilidad lo reincorpora
+	private Empleado tomarEmpleadoDisponible() {
+		while (true) {
+			Empleado candidato = poolEmpleados.sacarPrimero();
+			if (candidato == null || candidato.intentarAsignar()) {
+				return candidato;
+			}
+		}
+	}
+	
+	private Empleado tomarEmpleadoMenosRetrasos() {
+		while (true) {
+			Empleado candidato = heapRetrasos.sacarMinimo();
+			if (candidato == null || candidato.intentarAsignar()) {
+				return candidato;
+			}
+		}
 	}
 	
 	@Override
 	public String toString() {
-		StringBuilder sb = new StringBuilder();
-		sb.append("--- Home Solution ---\n");
-		if(proyectos.isEmpty()) {
-			sb.append("No hay proyectos registrados.\n");
-		} else {
-			for(Proyecto p : proyectos.values()) {
-				sb.append("\n----------------------------\n");
-				sb.append(p.toString()).append("\n");
-			}
+		StringWriter texto = new StringWriter();
+		try {
+			escribir(texto);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e); // StringWriter no lanza
+		}
+		return texto.toString();
+	}
+	
+	/**
+	 * Escribe el mismo texto que toString directo al destino, de a un proyecto y
+	 * un empleado por vez, sin armarlo entero en memoria.
+	 * @param destino Writer donde se escribe; no se cierra.
+	 */
+	public void escribir(Writer destino) throws IOException {
+		destino.write("--- Home Solution ---\n");
+		boolean[] hayProyectos = new boolean[1];
+		try {
+			recorrerProyectos(p -> {
+				try {
+					destino.write("\n----------------------------\n");
+					destino.write(p.toString());
+					destino.write("\n");
+					hayProyectos[0] = true;
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		if(!hayProyectos[0]) {
+			destino.write("No hay proyectos registrados.\n");
 		}
 		
-		sb.append("\n--- Empleados Registrados ---\n ");
+		destino.write("\n--- Empleados Registrados ---\n ");
 		if(empleados.isEmpty()) {
-			sb.append("No hay empleados registrados.\n");
+			destino.write("No hay empleados registrados.\n");
 		} else {
-			empleados.values().forEach(e -> sb.append(e.toString()).append("\n"));
+			for (Empleado e : empleados.values()) {
+				destino.write(e.toString());
+				destino.write("\n");
+			}
 		}
-		
-		return sb.toString();
-		
 	}
 }
@@ -0,0 +1,240 @@
+package entidades;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fachada asincrónica de IHomeSolution: cada operación devuelve un CompletableFuture
+ * y se ejecuta en un executor, sin bloquear el hilo que la pide.
+ *
+ * Por defecto usa un hilo virtual por tarea (si la JVM lo soporta) sobre un
+ * HomeSolutionConcurrente. Si se pide orden por proyecto, las operaciones sobre un
+ * mismo número de proyecto se ejecutan en el orden en que se pidieron, aunque
+ * alguna anterior falle; las de proyectos distintos siguen corriendo en paralelo.
+ */
+public class HomeSolutionAsincronica implements AutoCloseable {
+	private IHomeSolution sistema;
+	private ExecutorService executor;
+	private boolean ordenPorProyecto;
+	private Map<Integer, CompletableFuture<?>> ultimas; // última operación pedida por proyecto
+	
+	public HomeSolutionAsincronica() {
+		this(new HomeSolutionConcurrente(), crearExecutorPorDefecto(), true);
+	}
+	
+	public HomeSolutionAsincronica(IHomeSolution sistema, ExecutorService executor, boolean ordenPorProyecto) {
+		if (sistema == null) {
+			throw new IllegalArgumentException("El sistema no puede ser nulo");
+		}
+		if (executor == null) {
+			throw new IllegalArgumentException("El executor no puede ser nulo");
+		}
+		this.sistema = sistema;
+		this.executor = executor;
+		this.ordenPorProyecto = ordenPorProyecto;
+		this.ultimas = new ConcurrentHashMap<>();
+	}
+	
+	// un hilo virtual por tarea si está disponible (Java 21+), si no un pool que crece a demanda
+	private static ExecutorService crearExecutorPorDefecto() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+	
+	public boolean mantieneOrdenPorProyecto() {
+		return ordenPorProyecto;
+	}
+	
+	// REGISTRO DE EMPLEADOS
+	public CompletableFuture<Void> registrarEmpleado(String nombre, double valor) {
+		return ejecutar(() -> { sistema.registrarEmpleado(nombre, valor); return null; });
+	}
+	
+	public CompletableFuture<Void> registrarEmpleado(String nombre, double valor, String categoria) {
+		return ejecutar(() -> { sistema.registrarEmpleado(nombre, valor, categoria); return null; });
+	}
+	
+	public CompletableFuture<int[]> registrarEmpleados(String[] nombres, double[] valores, String[] categorias) {
+		return ejecutar(() -> sistema.registrarEmpleados(nombres, valores, categorias));
+	}
+	
+	// REGISTRO Y GESTION DE PROYECTOS
+	public CompletableFuture<Void> registrarProyecto(String[] titulos, String[] descripcion, double[] dias,
+			String domicilio, String[] cliente, String inicio, String fin) {
+		return ejecutar(() -> {
+			sistema.registrarProyecto(titulos, descripcion, dias, domicilio, cliente, inicio, fin);
+			return null;
+		});
+	}
+	
+	// ASIGNACIÓN Y GESTIÓN DE TAREAS
+	public CompletableFuture<Void> asignarResponsableEnTarea(Integer numero, String titulo) {
+		return enProyecto(numero, () -> { sistema.asignarResponsableEnTarea(numero, titulo); return null; });
+	}
+	
+	public CompletableFuture<Void> asignarResponsableMenosRetraso(Integer numero, String titulo) {
+		return enProyecto(numero, () -> { sistema.asignarResponsableMenosRetraso(numero, titulo); return null; });
+	}
+	
+	public CompletableFuture<Void> registrarRetrasoEnTarea(Integer numero, String titulo, double cantidadDias) {
+		return enProyecto(numero, () -> { sistema.registrarRetrasoEnTarea(numero, titulo, cantidadDias); return null; });
+	}
+	
+	public CompletableFuture<Void> agregarTareaEnProyecto(Integer numero, String titulo, String descripcion, double dias) {
+		return enProyecto(numero, () -> { sistema.agregarTareaEnProyecto(numero, titulo, descripcion, dias); return null; });
+	}
+	
+	public CompletableFuture<Void> agregarDependenciaEnProyecto(Integer numero, String titulo, String predecesora) {
+		return enProyecto(numero, () -> { sistema.agregarDependenciaEnProyecto(numero, titulo, predecesora); return null; });
+	}
+	
+	public CompletableFuture<Void> finalizarTarea(Integer numero, String titulo) {
+		return enProyecto(numero, () -> { sistema.finalizarTarea(numero, titulo); return null; });
+	}
+	
+	public CompletableFuture<Void> finalizarProyecto(Integer numero, String fin) {
+		return enProyecto(numero, () -> { sistema.finalizarProyecto(numero, fin); return null; });
+	}
+	
+	// REASIGNACIÓN DE EMPLEADOS
+	public CompletableFuture<Void> reasignarEmpleadoEnProyecto(Integer numero, Integer legajo, String titulo) {
+		return enProyecto(numero, () -> { sistema.reasignarEmpleadoEnProyecto(numero, legajo, titulo); return null; });
+	}
+	
+	public CompletableFuture<Void> reasignarEmpleadoConMenosRetraso(Integer numero, String titulo) {
+		return enProyecto(numero, () -> { sistema.reasignarEmpleadoConMenosRetraso(numero, titulo); return null; });
+	}
+	
+	// OPERACIONES EN LOTE
+	public CompletableFuture<List<ResultadoComando>> ejecutarLote(List<Comando> comandos) {
+		return ejecutar(() -> sistema.ejecutarLote(comandos));
+	}
+	
+	// CONSULTAS
+	public CompletableFuture<Double> costoProyecto(Integer numero) {
+		return enProyecto(numero, () -> sistema.costoProyecto(numero));
+	}
+	
+	public CompletableFuture<List<Tupla<Integer, String>>> proyectosFinalizados() {
+		return ejecutar(sistema::proyectosFinalizados);
+	}
+	
+	public CompletableFuture<List<Tupla<Integer, String>>> proyectosPendientes() {
+		return ejecutar(sistema::proyectosPendientes);
+	}
+	
+	public CompletableFuture<List<Tupla<Integer, String>>> proyectosActivos() {
+		return ejecutar(sistema::proyectosActivos);
+	}
+	
+	public CompletableFuture<Pagina<Tupla<Integer, String>>> proyectosPorEstado(String estado, int tamanio, String cursor) {
+		return ejecutar(() -> sistema.proyectosPorEstado(estado, tamanio, cursor));
+	}
+	
+	public CompletableFuture<Object[]> empleadosNoAsignados() {
+		return ejecutar(sistema::empleadosNoAsignados);
+	}
+	
+	public CompletableFuture<Boolean> estaFinalizado(Integer numero) {
+		return enProyecto(numero, () -> sistema.estaFinalizado(numero));
+	}
+	
+	public CompletableFuture<Integer> consultarCantidadRetrasosEmpleado(Integer legajo) {
+		return ejecutar(() -> sistema.consultarCantidadRetrasosEmpleado(legajo));
+	}
+	
+	public CompletableFuture<List<Tupla<Integer, String>>> empleadosAsignadosAProyecto(Integer numero) {
+		return enProyecto(numero, () -> sistema.empleadosAsignadosAProyecto(numero));
+	}
+	
+	public CompletableFuture<Object[]> tareasProyectoNoAsignadas(Integer numero) {
+		return enProyecto(numero, () -> sistema.tareasProyectoNoAsignadas(numero));
+	}
+	
+	public CompletableFuture<Object[]> tareasDeUnProyecto(Integer numero) {
+		return enProyecto(numero, () -> sistema.tareasDeUnProyecto(numero));
+	}
+	
+	public CompletableFuture<String> consultarDomicilioProyecto(Integer numero) {
+		return enProyecto(numero, () -> sistema.consultarDomicilioProyecto(numero));
+	}
+	
+	public CompletableFuture<Boolean> tieneRestrasos(Integer legajo) {
+		return ejecutar(() -> sistema.tieneRestrasos(legajo));
+	}
+	
+	public CompletableFuture<List<Tupla<Integer, String>>> empleados() {
+		return ejecutar(sistema::empleados);
+	}
+	
+	public CompletableFuture<Pagina<Tupla<Integer, String>>> empleados(int tamanio, String cursor) {
+		return ejecutar(() -> sistema.empleados(tamanio, cursor));
+	}
+	
+	public CompletableFuture<String> consultarProyecto(Integer numero) {
+		return enProyecto(numero, () -> sistema.consultarProyecto(numero));
+	}
+	
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+	
+	// METODOS AUXILIARES
+	
+	private interface Operacion<T> {
+		T ejecutar() throws Exception;
+	}
+	
+	private <T> CompletableFuture<T> ejecutar(Operacion<T> operacion) {
+		return CompletableFuture.supplyAsync(() -> correr(operacion), executor);
+	}
+	
+	// encadena la operación detrás de la última pedida para el mismo proyecto;
+	// nueva siempre termina, si no las siguientes del proyecto esperarían para siempre
+	private <T> CompletableFuture<T> enProyecto(Integer numero, Operacion<T> operacion) {
+		if (!ordenPorProyecto || numero == null) {
+			return ejecutar(operacion);
+		}
+		CompletableFuture<T> nueva = new CompletableFuture<>();
+		CompletableFuture<?> anterior = ultimas.put(numero, nueva);
+		CompletableFuture<?> espera = anterior != null ? anterior : CompletableFuture.completedFuture(null);
+		espera.whenComplete((r, e) -> {
+			try {
+				executor.execute(() -> {
+					try {
+						nueva.complete(correr(operacion));
+					} catch (CompletionException ex) {
+						nueva.completeExceptionally(ex.getCause());
+					} catch (Throwable ex) {
+						nueva.completeExceptionally(ex);
+					}
+				});
+			} catch (Throwable ex) {
+				// por ejemplo RejectedExecutionException después de close
+				nueva.completeExceptionally(ex);
+			}
+		});
+		// si nadie pidió otra cosa para este proyecto, no hace falta recordarla
+		nueva.whenComplete((r, e) -> ultimas.remove(numero, nueva));
+		return nueva;
+	}
+	
+	private <T> T correr(Operacion<T> operacion) {
+		try {
+			return operacion.ejecutar();
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new CompletionException(e);
+		}
+	}
+}
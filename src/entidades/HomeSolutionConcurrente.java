@@ -0,0 +1,360 @@
+package entidades;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implementación de IHomeSolution que puede usarse desde varios hilos a la vez.
+ *
+ * Cada operación sobre un proyecto toma el lock de la franja que le corresponde a su
+ * número, así las operaciones sobre proyectos distintos corren en paralelo.
+ * Los empleados son compartidos entre proyectos: se toman con un compare-and-set
+ * sobre su disponibilidad (Empleado.intentarAsignar), sin lock, y si otro hilo gana
+ * se reintenta con el siguiente candidato. El pool, el heap de retrasos y los índices
+ * de la cartera tienen sus propios locks, que siempre se toman después del de la franja.
+ * Los registros de empleados y proyectos se serializan con un lock aparte; el de un
+ * proyecto toma además la franja del número que va a recibir (siempre registro antes que franja).
+ */
+public class HomeSolutionConcurrente implements IHomeSolution {
+	private static final int FRANJAS_POR_DEFECTO = 64;
+	
+	private HomeSolution sistema;
+	private ReentrantLock[] franjas;
+	private ReentrantLock lockRegistro;
+	
+	public HomeSolutionConcurrente() {
+		this(new HomeSolution(), FRANJAS_POR_DEFECTO);
+	}
+	
+	public HomeSolutionConcurrente(HomeSolution sistema, int cantidadFranjas) {
+		if (sistema == null) {
+			throw new IllegalArgumentException("El sistema no puede ser nulo");
+		}
+		if (cantidadFranjas <= 0) {
+			throw new IllegalArgumentException("La cantidad de franjas debe ser mayor a 0");
+		}
+		this.sistema = sistema;
+		this.franjas = new ReentrantLock[cantidadFranjas];
+		for (int i = 0; i < cantidadFranjas; i++) {
+			franjas[i] = new ReentrantLock();
+		}
+		this.lockRegistro = new ReentrantLock();
+		sistema.delegarDespacho();
+	}
+	
+	// acceso al sistema envuelto, para consultas que no forman parte de la interfaz
+	public HomeSolution getSistema() {
+		return sistema;
+	}
+	
+	// REGISTRO DE EMPLEADOS
+	@Override
+	public void registrarEmpleado(String nombre, double valor) {
+		conRegistro(() -> { sistema.registrarEmpleado(nombre, valor); return null; });
+	}
+	
+	@Override
+	public void registrarEmpleado(String nombre, double valor, String categoria) {
+		conRegistro(() -> { sistema.registrarEmpleado(nombre, valor, categoria); return null; });
+	}
+	
+	@Override
+	public int[] registrarEmpleados(String[] nombres, double[] valores, String[] categorias) {
+		return conRegistro(() -> sistema.registrarEmpleados(nombres, valores, categorias));
+	}
+	
+	// REGISTRO Y GESTION DE PROYECTOS
+	@Override
+	public void registrarProyecto(String[] titulos, String[] descripcion, double[] dias, String domicilio,
+			String[] cliente, String inicio, String fin) {
+		// con el registro tomado el número que va a recibir el proyecto ya no cambia; tomo también
+		// su franja para que ni otra operación sobre ese número ni el despacho lo vean a medio armar
+		conRegistro(() -> {
+			ReentrantLock lock = franja(sistema.getContadorProyectos());
+			lock.lock();
+			try {
+				sistema.registrarProyecto(titulos, descripcion, dias, domicilio, cliente, inicio, fin);
+			} finally {
+				lock.unlock();
+			}
+			return null;
+		});
+	}
+	
+	// ASIGNACIÓN Y GESTIÓN DE TAREAS
+	@Override
+	public void asignarResponsableEnTarea(Integer numero, String titulo) throws Exception {
+		enProyecto(numero, () -> { sistema.asignarResponsableEnTarea(numero, titulo); return null; });
+	}
+	
+	@Override
+	public void asignarResponsableMenosRetraso(Integer numero, String titulo) throws Exception {
+		enProyecto(numero, () -> { sistema.asignarResponsableMenosRetraso(numero, titulo); return null; });
+	}
+	
+	@Override
+	public void registrarRetrasoEnTarea(Integer numero, String titulo, double cantidadDias) {
+		enProyecto(numero, () -> { sistema.registrarRetrasoEnTarea(numero, titulo, cantidadDias); return null; });
+	}
+	
+	@Override
+	public void agregarTareaEnProyecto(Integer numero, String titulo, String descripcion, double dias) {
+		enProyecto(numero, () -> { sistema.agregarTareaEnProyecto(numero, titulo, descripcion, dias); return null; });
+	}
+	
+	@Override
+	public void agregarDependenciaEnProyecto(Integer numero, String titulo, String predecesora) {
+		enProyecto(numero, () -> { sistema.agregarDependenciaEnProyecto(numero, titulo, predecesora); return null; });
+	}
+	
+	@Override
+	public void finalizarTarea(Integer numero, String titulo) throws Exception {
+		enProyecto(numero, () -> { sistema.finalizarTarea(numero, titulo); return null; });
+	}
+	
+	@Override
+	public void finalizarProyecto(Integer numero, String fin) {
+		enProyecto(numero, () -> { sistema.finalizarProyecto(numero, fin); return null; });
+	}
+	
+	// REASIGNACIÓN DE EMPLEADOS
+	@Override
+	public void reasignarEmpleadoEnProyecto(Integer numero, Integer legajo, String titulo) throws Exception {
+		enProyecto(numero, () -> { sistema.reasignarEmpleadoEnProyecto(numero, legajo, titulo); return null; });
+	}
+	
+	@Override
+	public void reasignarEmpleadoConMenosRetraso(Integer numero, String titulo) throws Exception {
+		enProyecto(numero, () -> { sistema.reasignarEmpleadoConMenosRetraso(numero, titulo); return null; });
+	}
+	
+	// OPERACIONES EN LOTE
+	@Override
+	public List<ResultadoComando> ejecutarLote(List<Comando> comandos) {
+		if (comandos == null) {
+			throw new IllegalArgumentException("La lista de comandos no puede ser nula");
+		}
+		// tomo cada franja involucrada una sola vez y siempre en orden, para no trabar con otro lote
+		TreeSet<Integer> indices = new TreeSet<>();
+		for (Comando c : comandos) {
+			indices.add(indiceFranja(c.getNumeroProyecto()));
+		}
+		List<ResultadoComando> resultados = conFranjas(indices, () -> sistema.ejecutarLote(comandos));
+		despacharLiberados();
+		return resultados;
+	}
+	
+	// el importador registra cada lote de una vez: con el registro tomado los números que van a
+	// recibir los proyectos ya no cambian, y tomo sus franjas igual que registrarProyecto
+	void registrarProyectos(List<DatosProyecto> datos) {
+		conRegistro(() -> {
+			TreeSet<Integer> indices = new TreeSet<>();
+			int primero = sistema.getContadorProyectos();
+			for (int i = 0; i < datos.size() && indices.size() < franjas.length; i++) {
+				indices.add(indiceFranja(primero + i));
+			}
+			return conFranjas(indices, () -> { sistema.registrarProyectos(datos); return null; });
+		});
+	}
+	
+	/**
+	 * HomeSolution.asignarPendientesAlMenorCosto con todas las franjas tomadas,
+	 * porque asigna tareas de cualquier proyecto.
+	 */
+	public List<ResultadoComando> asignarPendientesAlMenorCosto(double pesoRetraso) {
+		return conTodasLasFranjas(() -> sistema.asignarPendientesAlMenorCosto(pesoRetraso));
+	}
+	
+	// DESPACHO AUTOMÁTICO
+	
+	/**
+	 * HomeSolution.activarDespachoAutomatico con todas las franjas tomadas:
+	 * los empleados que ya estaban libres se despachan enseguida.
+	 */
+	public void activarDespachoAutomatico(EstrategiaDespacho estrategia) {
+		conTodasLasFranjas(() -> {
+			sistema.usarDespacho(estrategia);
+			return sistema.despacharLiberados();
+		});
+	}
+	
+	public void desactivarDespachoAutomatico() {
+		sistema.desactivarDespachoAutomatico();
+	}
+	
+	/**
+	 * Corre la lectura con el registro y todas las franjas tomados: ninguna operación
+	 * modifica el sistema mientras tanto. Sirve como PuntosDeControl.Pausa.
+	 */
+	public void conSistemaQuieto(PuntosDeControl.Lectura lectura) throws IOException {
+		conRegistro(() -> conTodasLasFranjas(() -> {
+			lectura.leer();
+			return null;
+		}));
+	}
+	
+	// CONSULTAS
+	@Override
+	public double costoProyecto(Integer numero) {
+		return enProyecto(numero, () -> sistema.costoProyecto(numero));
+	}
+	
+	@Override
+	public List<Tupla<Integer, String>> proyectosFinalizados() {
+		return sistema.proyectosFinalizados();
+	}
+	
+	@Override
+	public List<Tupla<Integer, String>> proyectosPendientes() {
+		return sistema.proyectosPendientes();
+	}
+	
+	@Override
+	public List<Tupla<Integer, String>> proyectosActivos() {
+		return sistema.proyectosActivos();
+	}
+	
+	@Override
+	public Pagina<Tupla<Integer, String>> proyectosPorEstado(String estado, int tamanio, String cursor) {
+		return sistema.proyectosPorEstado(estado, tamanio, cursor);
+	}
+	
+	@Override
+	public Object[] empleadosNoAsignados() {
+		return sistema.empleadosNoAsignados();
+	}
+	
+	@Override
+	public boolean estaFinalizado(Integer numero) {
+		return enProyecto(numero, () -> sistema.estaFinalizado(numero));
+	}
+	
+	@Override
+	public int consultarCantidadRetrasosEmpleado(Integer legajo) {
+		return sistema.consultarCantidadRetrasosEmpleado(legajo);
+	}
+	
+	@Override
+	public List<Tupla<Integer, String>> empleadosAsignadosAProyecto(Integer numero) {
+		return enProyecto(numero, () -> sistema.empleadosAsignadosAProyecto(numero));
+	}
+	
+	@Override
+	public Object[] tareasProyectoNoAsignadas(Integer numero) {
+		return enProyecto(numero, () -> sistema.tareasProyectoNoAsignadas(numero));
+	}
+	
+	@Override
+	public Object[] tareasDeUnProyecto(Integer numero) {
+		return enProyecto(numero, () -> sistema.tareasDeUnProyecto(numero));
+	}
+	
+	@Override
+	public String consultarDomicilioProyecto(Integer numero) {
+		return enProyecto(numero, () -> sistema.consultarDomicilioProyecto(numero));
+	}
+	
+	@Override
+	public boolean tieneRestrasos(Integer legajo) {
+		return sistema.tieneRestrasos(legajo);
+	}
+	
+	@Override
+	public List<Tupla<Integer, String>> empleados() {
+		return sistema.empleados();
+	}
+	
+	@Override
+	public Pagina<Tupla<Integer, String>> empleados(int tamanio, String cursor) {
+		return sistema.empleados(tamanio, cursor);
+	}
+	
+	@Override
+	public String consultarProyecto(Integer numero) {
+		return enProyecto(numero, () -> sistema.consultarProyecto(numero));
+	}
+	
+	@Override
+	public String toString() {
+		return sistema.toString();
+	}
+	
+	// METODOS AUXILIARES
+	
+	private interface Operacion<T, E extends Exception> {
+		T ejecutar() throws E;
+	}
+	
+	private int indiceFranja(Integer numero) {
+		int hash = numero == null ? 0 : numero.hashCode();
+		return Math.floorMod(hash, franjas.length);
+	}
+	
+	private ReentrantLock franja(Integer numero) {
+		return franjas[indiceFranja(numero)];
+	}
+	
+	private <T, E extends Exception> T enProyecto(Integer numero, Operacion<T, E> operacion) throws E {
+		ReentrantLock lock = franja(numero);
+		T resultado;
+		lock.lock();
+		try {
+			resultado = operacion.ejecutar();
+		} finally {
+			lock.unlock();
+		}
+		despacharLiberados();
+		return resultado;
+	}
+	
+	// el despacho automático toca proyectos de cualquier franja, así que las toma todas
+	private void despacharLiberados() {
+		if (sistema.hayDespachoPendiente()) {
+			conTodasLasFranjas(() -> sistema.despacharLiberados());
+		}
+	}
+	
+	// toma cada franja indicada una sola vez y en orden
+	private <T, E extends Exception> T conFranjas(TreeSet<Integer> indices, Operacion<T, E> operacion) throws E {
+		List<ReentrantLock> tomados = new ArrayList<>(indices.size());
+		try {
+			for (int i : indices) {
+				franjas[i].lock();
+				tomados.add(franjas[i]);
+			}
+			return operacion.ejecutar();
+		} finally {
+			for (ReentrantLock lock : tomados) {
+				lock.unlock();
+			}
+		}
+	}
+	
+	// toma todas las franjas en orden, igual que un lote, para no trabar con otro
+	private <T, E extends Exception> T conTodasLasFranjas(Operacion<T, E> operacion) throws E {
+		int tomadas = 0;
+		try {
+			for (ReentrantLock lock : franjas) {
+				lock.lock();
+				tomadas++;
+			}
+			return operacion.ejecutar();
+		} finally {
+			for (int i = 0; i < tomadas; i++) {
+				franjas[i].unlock();
+			}
+		}
+	}
+	
+	private <T, E extends Exception> T conRegistro(Operacion<T, E> operacion) throws E {
+		lockRegistro.lock();
+		try {
+			return operacion.ejecutar();
+		} finally {
+			lockRegistro.unlock();
+		}
+	}
+}
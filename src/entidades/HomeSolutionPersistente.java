@@ -0,0 +1,445 @@
+package entidades;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Implementación de IHomeSolution que guarda cada operación exitosa que modifica
+ * el estado en un RegistroMutaciones, y al abrirse reconstruye el estado
+ * reproduciendo ese registro.
+ *
+ * Cada operación se codifica y se escribe en el registro antes de aplicarse, y si el
+ * sistema la rechaza se descarta del registro; las que eligen un empleado lo eligen
+ * antes, sin tomarlo, para escribir su legajo. Todo se hace bajo un mismo lock, así el
+ * orden del registro es el orden real en que se aplicaron. El fsync se hace fuera del
+ * lock y se comparte entre los hilos que escribieron mientras tanto (group commit).
+ * Cada operación vuelve recién cuando quedó en disco.
+ */
+public class HomeSolutionPersistente implements IHomeSolution, AutoCloseable {
+	private HomeSolution sistema;
+	private RegistroMutaciones registro;
+	private ReentrantLock orden;
+	
+	public HomeSolutionPersistente(HomeSolution sistema, RegistroMutaciones registro) {
+		if (sistema == null || registro == null) {
+			throw new IllegalArgumentException("El sistema y el registro no pueden ser nulos");
+		}
+		this.sistema = sistema;
+		this.registro = registro;
+		this.orden = new ReentrantLock();
+		sistema.delegarDespacho();
+	}
+	
+	/**
+	 * Abre el sistema guardado en el archivo, reproduciendo su registro si ya existe.
+	 * @param archivo Archivo del registro de mutaciones.
+	 * @throws IOException Si el registro no se puede leer o abrir.
+	 */
+	public static HomeSolutionPersistente abrir(Path archivo) throws IOException {
+		return abrir(archivo, false);
+	}
+	
+	/**
+	 * Igual que abrir, pero con la opción de reproducir el registro en paralelo por proyecto.
+	 * @param archivo Archivo del registro de mutaciones.
+	 * @param enParalelo true para usar RegistroMutaciones.reproducirEnParalelo.
+	 * @throws IOException Si el registro no se puede leer o abrir.
+	 */
+	public static HomeSolutionPersistente abrir(Path archivo, boolean enParalelo) throws IOException {
+		HomeSolution sistema = new HomeSolution();
+		return new HomeSolutionPersistente(sistema, RegistroMutaciones.reproducirYAbrir(archivo, sistema, enParalelo));
+	}
+	
+	public HomeSolution getSistema() {
+		return sistema;
+	}
+	
+	// REGISTRO DE EMPLEADOS
+	@Override
+	public void registrarEmpleado(String nombre, double valor) {
+		registrar(() -> Mutacion.registrarContratado(nombre, valor));
+	}
+	
+	@Override
+	public void registrarEmpleado(String nombre, double valor, String categoria) {
+		registrar(() -> Mutacion.registrarPlanta(nombre, valor, categoria));
+	}
+	
+	@Override
+	public int[] registrarEmpleados(String[] nombres, double[] valores, String[] categorias) {
+		int[][] legajos = new int[1][];
+		registrar(() -> Mutacion.registrarLote(nombres, valores, categorias),
+				() -> legajos[0] = sistema.registrarEmpleados(nombres, valores, categorias));
+		return legajos[0];
+	}
+	
+	// REGISTRO Y GESTION DE PROYECTOS
+	@Override
+	public void registrarProyecto(String[] titulos, String[] descripcion, double[] dias, String domicilio,
+			String[] cliente, String inicio, String fin) {
+		registrar(() -> Mutacion.registrarProyecto(titulos, descripcion, dias, domicilio, cliente, inicio, fin));
+	}
+	
+	// el importador registra cada lote bajo un solo lock y con un solo fsync; cada proyecto va al
+	// registro como un alta común, pero se aplica con las fechas ya parseadas
+	void registrarProyectos(List<DatosProyecto> datos) {
+		long posicion = 0;
+		orden.lock();
+		try {
+			for (DatosProyecto d : datos) {
+				posicion = escribirYAplicar(Mutacion.registrarProyecto(d.getTitulos(), d.getDescripciones(), d.getDias(),
+						d.getDomicilio(), d.getCliente(), d.getInicio(), d.getFin()), () -> sistema.registrarValidado(d));
+			}
+			posicion = registrarDespacho(posicion);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			orden.unlock();
+		}
+		sincronizar(posicion);
+	}
+	
+	// ASIGNACIÓN Y GESTIÓN DE TAREAS
+	// las que eligen empleado lo eligen antes, sin tomarlo, para escribir el legajo en el registro
+	@Override
+	public void asignarResponsableEnTarea(Integer numero, String titulo) throws Exception {
+		registrar(() -> Mutacion.asignar(numero, titulo,
+				sistema.elegirResponsable(numero, titulo, EstrategiaDespacho.fifo)));
+	}
+	
+	@Override
+	public void asignarResponsableMenosRetraso(Integer numero, String titulo) throws Exception {
+		registrar(() -> Mutacion.asignar(numero, titulo,
+				sistema.elegirResponsable(numero, titulo, EstrategiaDespacho.menosRetrasos)));
+	}
+	
+	@Override
+	public void registrarRetrasoEnTarea(Integer numero, String titulo, double cantidadDias) {
+		registrar(() -> Mutacion.registrarRetraso(numero, titulo, cantidadDias));
+	}
+	
+	@Override
+	public void agregarTareaEnProyecto(Integer numero, String titulo, String descripcion, double dias) {
+		registrar(() -> Mutacion.agregarTarea(numero, titulo, descripcion, dias));
+	}
+	
+	@Override
+	public void agregarDependenciaEnProyecto(Integer numero, String titulo, String predecesora) {
+		registrar(() -> Mutacion.agregarDependencia(numero, titulo, predecesora));
+	}
+	
+	@Override
+	public void finalizarTarea(Integer numero, String titulo) throws Exception {
+		registrar(() -> Mutacion.finalizarTarea(numero, titulo));
+	}
+	
+	@Override
+	public void finalizarProyecto(Integer numero, String fin) {
+		registrar(() -> Mutacion.finalizarProyecto(numero, fin));
+	}
+	
+	// REASIGNACIÓN DE EMPLEADOS
+	@Override
+	public void reasignarEmpleadoEnProyecto(Integer numero, Integer legajo, String titulo) throws Exception {
+		registrar(() -> Mutacion.reasignar(numero, legajo, titulo));
+	}
+	
+	@Override
+	public void reasignarEmpleadoConMenosRetraso(Integer numero, String titulo) throws Exception {
+		registrar(() -> Mutacion.reasignar(numero, sistema.elegirReemplazo(numero, titulo), titulo));
+	}
+	
+	// OPERACIONES EN LOTE
+	/**
+	 * Igual que HomeSolution.ejecutarLote, pero comando por comando en el orden de la lista,
+	 * así cada uno se escribe en el registro antes de aplicarse.
+	 */
+	@Override
+	public List<ResultadoComando> ejecutarLote(List<Comando> comandos) {
+		if (comandos == null) {
+			throw new IllegalArgumentException("La lista de comandos no puede ser nula");
+		}
+		List<ResultadoComando> resultados = new ArrayList<>(comandos.size());
+		long inicio;
+		long escrito;
+		orden.lock();
+		inicio = registro.getEscritoHasta();
+		try {
+			for (Comando comando : comandos) {
+				try {
+					Integer legajo = elegirLegajo(comando);
+					escribirYAplicar(Mutacion.desdeComando(comando, legajo), null);
+					resultados.add(ResultadoComando.exitoso(comando, legajo));
+				} catch (RuntimeException e) {
+					// igual que HomeSolution.ejecutarLote: un comando que falla no corta el lote
+					resultados.add(ResultadoComando.fallido(comando, e.getMessage()));
+				}
+			}
+			registrarDespacho(0);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			escrito = registro.getEscritoHasta();
+			orden.unlock();
+			// lo que ya se escribió y se aplicó queda en disco aunque el lote se corte
+			if (escrito > inicio) {
+				sincronizar(escrito);
+			}
+		}
+		return resultados;
+	}
+	
+	/**
+	 * HomeSolution.asignarPendientesAlMenorCosto, escribiendo cada asignación en el registro
+	 * antes de aplicarla. Con el lock de orden tomado nadie más toma empleados, así que
+	 * todos los elegidos siguen libres.
+	 */
+	public List<ResultadoComando> asignarPendientesAlMenorCosto(double pesoRetraso) {
+		long posicion = 0;
+		List<ResultadoComando> asignaciones;
+		orden.lock();
+		try {
+			asignaciones = sistema.planificarAsignacionOptima(pesoRetraso);
+			for (ResultadoComando r : asignaciones) {
+				posicion = escribirYAplicar(Mutacion.desdeComando(r.getComando(), r.getLegajoAsignado()), null);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			orden.unlock();
+		}
+		sincronizar(posicion);
+		return asignaciones;
+	}
+	
+	// DESPACHO AUTOMÁTICO
+	
+	/**
+	 * HomeSolution.activarDespachoAutomatico, escribiendo en el registro las asignaciones
+	 * de los empleados que ya estaban libres.
+	 */
+	public void activarDespachoAutomatico(EstrategiaDespacho estrategia) {
+		long posicion;
+		orden.lock();
+		try {
+			sistema.usarDespacho(estrategia);
+			posicion = registrarDespacho(0);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			orden.unlock();
+		}
+		sincronizar(posicion);
+	}
+	
+	public void desactivarDespachoAutomatico() {
+		orden.lock();
+		try {
+			sistema.desactivarDespachoAutomatico();
+		} finally {
+			orden.unlock();
+		}
+	}
+	
+	/**
+	 * Corre la lectura con el lock de orden tomado: ninguna operación modifica el sistema
+	 * mientras tanto. Sirve como PuntosDeControl.Pausa.
+	 */
+	public void conSistemaQuieto(PuntosDeControl.Lectura lectura) throws IOException {
+		orden.lock();
+		try {
+			lectura.leer();
+		} finally {
+			orden.unlock();
+		}
+	}
+	
+	// CONSULTAS
+	@Override
+	public double costoProyecto(Integer numero) {
+		return leer(() -> sistema.costoProyecto(numero));
+	}
+	
+	@Override
+	public List<Tupla<Integer, String>> proyectosFinalizados() {
+		return leer(() -> sistema.proyectosFinalizados());
+	}
+	
+	@Override
+	public List<Tupla<Integer, String>> proyectosPendientes() {
+		return leer(() -> sistema.proyectosPendientes());
+	}
+	
+	@Override
+	public List<Tupla<Integer, String>> proyectosActivos() {
+		return leer(() -> sistema.proyectosActivos());
+	}
+	
+	@Override
+	public Pagina<Tupla<Integer, String>> proyectosPorEstado(String estado, int tamanio, String cursor) {
+		return leer(() -> sistema.proyectosPorEstado(estado, tamanio, cursor));
+	}
+	
+	@Override
+	public Object[] empleadosNoAsignados() {
+		return leer(() -> sistema.empleadosNoAsignados());
+	}
+	
+	@Override
+	public boolean estaFinalizado(Integer numero) {
+		return leer(() -> sistema.estaFinalizado(numero));
+	}
+	
+	@Override
+	public int consultarCantidadRetrasosEmpleado(Integer legajo) {
+		return leer(() -> sistema.consultarCantidadRetrasosEmpleado(legajo));
+	}
+	
+	@Override
+	public List<Tupla<Integer, String>> empleadosAsignadosAProyecto(Integer numero) {
+		return leer(() -> sistema.empleadosAsignadosAProyecto(numero));
+	}
+	
+	@Override
+	public Object[] tareasProyectoNoAsignadas(Integer numero) {
+		return leer(() -> sistema.tareasProyectoNoAsignadas(numero));
+	}
+	
+	@Override
+	public Object[] tareasDeUnProyecto(Integer numero) {
+		return leer(() -> sistema.tareasDeUnProyecto(numero));
+	}
+	
+	@Override
+	public String consultarDomicilioProyecto(Integer numero) {
+		return leer(() -> sistema.consultarDomicilioProyecto(numero));
+	}
+	
+	@Override
+	public boolean tieneRestrasos(Integer legajo) {
+		return leer(() -> sistema.tieneRestrasos(legajo));
+	}
+	
+	@Override
+	public List<Tupla<Integer, String>> empleados() {
+		return leer(() -> sistema.empleados());
+	}
+	
+	@Override
+	public Pagina<Tupla<Integer, String>> empleados(int tamanio, String cursor) {
+		return leer(() -> sistema.empleados(tamanio, cursor));
+	}
+	
+	@Override
+	public String consultarProyecto(Integer numero) {
+		return leer(() -> sistema.consultarProyecto(numero));
+	}
+	
+	@Override
+	public void close() throws IOException {
+		registro.close();
+	}
+	
+	@Override
+	public String toString() {
+		return leer(sistema::toString);
+	}
+	
+	// METODOS AUXILIARES
+	
+	private interface Codificacion {
+		Mutacion codificar();
+	}
+	
+	private void registrar(Codificacion codificacion) {
+		registrar(codificacion, null);
+	}
+	
+	// codifica, escribe y aplica bajo el lock de orden; el fsync compartido se espera afuera
+	private void registrar(Codificacion codificacion, Runnable aplicacion) {
+		long posicion;
+		orden.lock();
+		try {
+			posicion = escribirYAplicar(codificacion.codificar(), aplicacion);
+			posicion = registrarDespacho(posicion);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			orden.unlock();
+		}
+		sincronizar(posicion);
+	}
+	
+	// escribe la mutación y recién después la aplica (con el mismo código que la reproducción,
+	// salvo que se indique otra aplicación equivalente); si el sistema la rechaza, la saca del
+	// registro, así memoria y registro nunca difieren
+	private long escribirYAplicar(Mutacion mutacion, Runnable aplicacion) throws IOException {
+		long inicio = registro.getEscritoHasta();
+		long posicion = registro.agregar(mutacion);
+		try {
+			if (aplicacion != null) {
+				aplicacion.run();
+			} else {
+				mutacion.aplicar(sistema);
+			}
+		} catch (RuntimeException e) {
+			registro.descartarDesde(inicio);
+			throw e;
+		}
+		return posicion;
+	}
+	
+	// el legajo que va a quedar asignado con el comando, elegido antes de aplicarlo; null si no asigna
+	private Integer elegirLegajo(Comando comando) {
+		Integer numero = comando.getNumeroProyecto();
+		String titulo = comando.getTitulo();
+		switch (comando.getTipo()) {
+			case Comando.asignar:
+				return sistema.elegirResponsable(numero, titulo, EstrategiaDespacho.fifo);
+			case Comando.asignarMenosRetraso:
+				return sistema.elegirResponsable(numero, titulo, EstrategiaDespacho.menosRetrasos);
+			case Comando.reasignar:
+				return comando.getLegajo();
+			case Comando.reasignarMenosRetraso:
+				return sistema.elegirReemplazo(numero, titulo);
+			default:
+				return null;
+		}
+	}
+	
+	// las asignaciones del despacho automático van al registro como asignaciones comunes,
+	// así reproducirlo no depende de que el despacho esté activo
+	private long registrarDespacho(long posicion) throws IOException {
+		if (sistema.empezarDespacho()) {
+			ResultadoComando siguiente;
+			while ((siguiente = sistema.proximoDespacho()) != null) {
+				posicion = escribirYAplicar(
+						Mutacion.desdeComando(siguiente.getComando(), siguiente.getLegajoAsignado()), null);
+			}
+		}
+		return posicion;
+	}
+	
+	// las consultas también esperan el lock, para no ver una operación a medio aplicar
+	private <T> T leer(Supplier<T> consulta) {
+		orden.lock();
+		try {
+			return consulta.get();
+		} finally {
+			orden.unlock();
+		}
+	}
+	
+	private void sincronizar(long posicion) {
+		try {
+			registro.sincronizar(posicion);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
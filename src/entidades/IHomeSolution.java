@@ -50,6 +50,17 @@ public interface IHomeSolution {
      */
     public void registrarEmpleado(String nombre, double valor, String categoria) throws IllegalArgumentException;
 
+    /**
+     * Registra un lote de empleados de una sola vez. Si el lote tiene algún dato inválido
+     * no se registra ninguno.
+     * @param nombres Nombres de los empleados.
+     * @param valores Valor de trabajo de cada empleado.
+     * @param categorias Categoría de cada empleado; null (o el array entero null) indica contratado.
+     * @return Legajos asignados, en el mismo orden que los datos recibidos.
+     * @throws IllegalArgumentException Si los arrays no coinciden o algún empleado es inválido.
+     */
+    public int[] registrarEmpleados(String[] nombres, double[] valores, String[] categorias) throws IllegalArgumentException;
+
     // ============================================================
     // REGISTRO Y GESTIÓN DE PROYECTOS
     // ============================================================
@@ -112,6 +123,16 @@ public interface IHomeSolution {
      */
     public void agregarTareaEnProyecto(Integer numero, String titulo, String descripcion, double dias) throws  IllegalArgumentException;
 
+    /**
+     * Indica que una tarea no puede empezar hasta que termine otra del mismo proyecto.
+     * Las dependencias definen la fecha de fin planificada y el camino crítico.
+     * @param numero Número o código del proyecto.
+     * @param titulo Título de la tarea que depende.
+     * @param predecesora Título de la tarea que tiene que terminar antes.
+     * @throws IllegalArgumentException Si alguna tarea no existe, la dependencia ya existe o formaría un ciclo.
+     */
+    public void agregarDependenciaEnProyecto(Integer numero, String titulo, String predecesora) throws IllegalArgumentException;
+
     /**
      * Marca una tarea como finalizada.     *
      * @param numero Número o código del proyecto.
@@ -153,6 +174,20 @@ public interface IHomeSolution {
      */
     public void reasignarEmpleadoConMenosRetraso(Integer numero, String titulo)throws Exception;
 
+    // ============================================================
+    // OPERACIONES EN LOTE
+    // ============================================================
+
+    /**
+     * Ejecuta varios comandos de una vez. Los comandos se agrupan por proyecto: cada
+     * proyecto y cada tarea se buscan una sola vez, y dentro de un proyecto se respeta
+     * el orden recibido. Un comando que falla no detiene a los demás.
+     * @param comandos Comandos a ejecutar.
+     * @return Un resultado por comando, en el mismo orden de la lista recibida.
+     * @throws IllegalArgumentException Si la lista es nula.
+     */
+    public List<ResultadoComando> ejecutarLote(List<Comando> comandos) throws IllegalArgumentException;
+
     // ============================================================
     // CONSULTAS Y REPORTES
     // ============================================================
@@ -182,6 +217,16 @@ public interface IHomeSolution {
      */
     public List<Tupla<Integer, String>> proyectosActivos();
 
+    /**
+     * Devuelve una página de los proyectos en un estado, ordenados por número.
+     * @param estado Estado.pendiente, Estado.activo o Estado.finalizado.
+     * @param tamanio Cantidad máxima de proyectos en la página.
+     * @param cursor null para la primera página, o el siguiente de la página anterior.
+     * @return Página de tuplas (número, domicilio).
+     * @throws IllegalArgumentException si el estado, el tamaño o el cursor no son válidos.
+     */
+    public Pagina<Tupla<Integer, String>> proyectosPorEstado(String estado, int tamanio, String cursor) throws IllegalArgumentException;
+
     /**
      * Devuelve los empleados que no están asignados a ningún proyecto.
      * @return Arreglo de empleados no asignados (solo numero de legajo)
@@ -246,6 +291,15 @@ public interface IHomeSolution {
      * @return Lista de tuplas (legajo, nombre del empleado).
      */
     public List<Tupla<Integer, String>> empleados();
+
+    /**
+     * Devuelve una página de los empleados registrados, ordenados por legajo.
+     * @param tamanio Cantidad máxima de empleados en la página.
+     * @param cursor null para la primera página, o el siguiente de la página anterior.
+     * @return Página de tuplas (legajo, nombre del empleado).
+     * @throws IllegalArgumentException si el tamaño o el cursor no son válidos.
+     */
+    public Pagina<Tupla<Integer, String>> empleados(int tamanio, String cursor) throws IllegalArgumentException;
     /**
      * Devuelve la informacion generada en el toString.
      * @numero numero de proyecto.
@@ -0,0 +1,443 @@
+package entidades;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Importa proyectos en masa desde un archivo CSV o JSON-lines, leyéndolo de a poco.
+ *
+ * Las líneas se juntan en lotes que se parsean y validan en varios hilos, con las mismas
+ * reglas que registrarProyecto. Los proyectos válidos se registran desde el hilo que
+ * llama, en el orden del archivo, así los números de proyecto son los mismos que con
+ * una carga secuencial. Con HomeSolution y sus envoltorios cada lote se registra de una
+ * vez, sin volver a validar (un solo lock y, con HomeSolutionPersistente, un solo fsync);
+ * con otra implementación, fila por fila. Como mucho hay 2 lotes por hilo en memoria a la vez.
+ * Una fila con errores no corta la importación: queda en el resultado con su línea.
+ *
+ * CSV: una línea por proyecto, separada por comas (los campos pueden ir entre comillas):
+ *   domicilio,nombre,email,telefono,inicio,fin,titulo,descripcion,dias[,titulo,descripcion,dias...]
+ * Si la primera línea empieza con "domicilio" se toma como encabezado.
+ *
+ * JSON-lines: un objeto por línea:
+ *   {"domicilio":"...","cliente":{"nombre":"...","email":"...","telefono":"..."},
+ *    "inicio":"2025-01-01","fin":"2025-02-01","tareas":[{"titulo":"...","descripcion":"...","dias":3}]}
+ *
+ * Las líneas vacías y las que empiezan con # se ignoran.
+ */
+public class ImportadorProyectos {
+	private IHomeSolution sistema;
+	private int hilos;
+	private int tamanioLote;
+	
+	public ImportadorProyectos(IHomeSolution sistema) {
+		this(sistema, Runtime.getRuntime().availableProcessors(), 1000);
+	}
+	
+	public ImportadorProyectos(IHomeSolution sistema, int hilos, int tamanioLote) {
+		if (sistema == null) {
+			throw new IllegalArgumentException("El sistema no puede ser nulo");
+		}
+		if (hilos <= 0 || tamanioLote <= 0) {
+			throw new IllegalArgumentException("La cantidad de hilos y el tamaño de lote deben ser mayores a 0");
+		}
+		this.sistema = sistema;
+		this.hilos = hilos;
+		this.tamanioLote = tamanioLote;
+	}
+	
+	public ResultadoImportacion importarCsv(Path archivo) throws IOException {
+		try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+			return importar(lector, false);
+		}
+	}
+	
+	public ResultadoImportacion importarJsonl(Path archivo) throws IOException {
+		try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+			return importar(lector, true);
+		}
+	}
+	
+	/**
+	 * Importa desde un lector ya abierto.
+	 * @param json true si cada línea es un objeto JSON, false si es CSV.
+	 */
+	public ResultadoImportacion importar(BufferedReader lector, boolean json) throws IOException {
+		ResultadoImportacion resultado = new ResultadoImportacion();
+		ExecutorService ejecutor = Executors.newFixedThreadPool(hilos);
+		Deque<Future<List<Fila>>> enCurso = new ArrayDeque<>();
+		try {
+			List<String> lineas = new ArrayList<>(tamanioLote);
+			int numeroLinea = 0;
+			int primeraDelLote = 1;
+			String linea;
+			while ((linea = lector.readLine()) != null) {
+				numeroLinea++;
+				if (numeroLinea == 1 && !json && linea.trim().toLowerCase().startsWith("domicilio")) {
+					linea = ""; // encabezado
+				}
+				lineas.add(linea);
+				if (lineas.size() == tamanioLote) {
+					enCurso.add(enviar(ejecutor, lineas, primeraDelLote, json));
+					lineas = new ArrayList<>(tamanioLote);
+					primeraDelLote = numeroLinea + 1;
+					// no leo más de lo que los hilos pueden procesar
+					if (enCurso.size() >= 2 * hilos) {
+						registrar(enCurso.poll(), resultado);
+					}
+				}
+			}
+			if (!lineas.isEmpty()) {
+				enCurso.add(enviar(ejecutor, lineas, primeraDelLote, json));
+			}
+			while (!enCurso.isEmpty()) {
+				registrar(enCurso.poll(), resultado);
+			}
+			return resultado;
+		} finally {
+			ejecutor.shutdownNow();
+		}
+	}
+	
+	private Future<List<Fila>> enviar(ExecutorService ejecutor, List<String> lineas, int primera, boolean json) {
+		return ejecutor.submit(() -> {
+			List<Fila> filas = new ArrayList<>(lineas.size());
+			for (int i = 0; i < lineas.size(); i++) {
+				String linea = lineas.get(i);
+				if (linea.isBlank() || linea.startsWith("#")) continue;
+				Fila fila = new Fila(primera + i);
+				try {
+					if (json) fila.leerJson(linea); else fila.leerCsv(linea);
+					fila.datos = new DatosProyecto(fila.titulos, fila.descripciones, fila.dias, fila.domicilio,
+							fila.cliente, fila.inicio, fila.fin);
+				} catch (RuntimeException e) {
+					fila.error = e.getMessage();
+				}
+				filas.add(fila);
+			}
+			return filas;
+		});
+	}
+	
+	// registra en orden las filas válidas de un lote ya parseado
+	private void registrar(Future<List<Fila>> lote, ResultadoImportacion resultado) throws IOException {
+		List<Fila> filas;
+		try {
+			filas = lote.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Importación interrumpida", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Error inesperado al parsear un lote", e.getCause());
+		}
+		List<DatosProyecto> validos = new ArrayList<>(filas.size());
+		for (Fila fila : filas) {
+			if (fila.error == null) validos.add(fila.datos);
+		}
+		if (!registrarEnBloque(validos)) {
+			for (Fila fila : filas) {
+				if (fila.error == null) {
+					try {
+						sistema.registrarProyecto(fila.titulos, fila.descripciones, fila.dias, fila.domicilio,
+								fila.cliente, fila.inicio, fila.fin);
+					} catch (RuntimeException e) {
+						fila.error = e.getMessage();
+					}
+				}
+			}
+		}
+		for (Fila fila : filas) {
+			if (fila.error == null) {
+				resultado.sumarImportado();
+			} else {
+				resultado.agregarError(fila.linea, fila.error);
+			}
+		}
+	}
+	
+	// false si el sistema no tiene registro en bloque y hay que ir fila por fila
+	private boolean registrarEnBloque(List<DatosProyecto> datos) throws IOException {
+		try {
+			if (sistema instanceof HomeSolutionPersistente) {
+				((HomeSolutionPersistente) sistema).registrarProyectos(datos);
+			} else if (sistema instanceof HomeSolutionConcurrente) {
+				((HomeSolutionConcurrente) sistema).registrarProyectos(datos);
+			} else if (sistema instanceof HomeSolution) {
+				((HomeSolution) sistema).registrarProyectos(datos);
+			} else {
+				return false;
+			}
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		return true;
+	}
+	
+	// una línea del archivo ya convertida a los parámetros de registrarProyecto
+	private static class Fila {
+		private int linea;
+		private String domicilio;
+		private String[] cliente;
+		private String inicio;
+		private String fin;
+		private String[] titulos;
+		private String[] descripciones;
+		private double[] dias;
+		private DatosProyecto datos;
+		private String error;
+		
+		Fila(int linea) {
+			this.linea = linea;
+		}
+		
+		void leerCsv(String texto) {
+			List<String> campos = separarCsv(texto);
+			if (campos.size() < 9 || (campos.size() - 6) % 3 != 0) {
+				throw new IllegalArgumentException("Cantidad de columnas inválida: " + campos.size());
+			}
+			domicilio = campos.get(0);
+			cliente = new String[] {campos.get(1), campos.get(2), campos.get(3)};
+			inicio = campos.get(4);
+			fin = campos.get(5);
+			int cantidad = (campos.size() - 6) / 3;
+			titulos = new String[cantidad];
+			descripciones = new String[cantidad];
+			dias = new double[cantidad];
+			for (int i = 0; i < cantidad; i++) {
+				titulos[i] = campos.get(6 + 3 * i);
+				descripciones[i] = campos.get(7 + 3 * i);
+				dias[i] = leerDias(campos.get(8 + 3 * i), i);
+			}
+		}
+		
+		void leerJson(String texto) {
+			Map<String, Object> objeto = comoObjeto(new LectorJson(texto).leerDocumento(), "la línea");
+			domicilio = comoTexto(objeto.get("domicilio"));
+			Map<String, Object> datosCliente = comoObjeto(objeto.get("cliente"), "cliente");
+			cliente = new String[] {comoTexto(datosCliente.get("nombre")), comoTexto(datosCliente.get("email")),
+					comoTexto(datosCliente.get("telefono"))};
+			inicio = comoTexto(objeto.get("inicio"));
+			fin = comoTexto(objeto.get("fin"));
+			if (!(objeto.get("tareas") instanceof List)) {
+				throw new IllegalArgumentException("Falta la lista de tareas");
+			}
+			List<?> tareas = (List<?>) objeto.get("tareas");
+			titulos = new String[tareas.size()];
+			descripciones = new String[tareas.size()];
+			dias = new double[tareas.size()];
+			for (int i = 0; i < tareas.size(); i++) {
+				Map<String, Object> tarea = comoObjeto(tareas.get(i), "la tarea " + (i + 1));
+				titulos[i] = comoTexto(tarea.get("titulo"));
+				descripciones[i] = tarea.containsKey("descripcion") ? comoTexto(tarea.get("descripcion")) : "";
+				Object valor = tarea.get("dias");
+				dias[i] = valor instanceof Double ? (Double) valor : leerDias(comoTexto(valor), i);
+			}
+		}
+		
+		private static double leerDias(String texto, int tarea) {
+			try {
+				return Double.parseDouble(texto.trim());
+			} catch (NumberFormatException | NullPointerException e) {
+				throw new IllegalArgumentException("Días inválidos en la tarea " + (tarea + 1) + ": " + texto);
+			}
+		}
+		
+		@SuppressWarnings("unchecked")
+		private static Map<String, Object> comoObjeto(Object valor, String que) {
+			if (!(valor instanceof Map)) {
+				throw new IllegalArgumentException("Se esperaba un objeto en " + que);
+			}
+			return (Map<String, Object>) valor;
+		}
+		
+		// los números se aceptan como texto; null queda null y lo rechaza la validación
+		private static String comoTexto(Object valor) {
+			if (valor instanceof Double && (Double) valor == Math.rint((Double) valor)) {
+				return String.valueOf(((Double) valor).longValue());
+			}
+			return valor != null ? valor.toString() : null;
+		}
+	}
+	
+	// separa una línea CSV; las comillas dobles agrupan y "" dentro de comillas es una comilla
+	static List<String> separarCsv(String linea) {
+		List<String> campos = new ArrayList<>();
+		StringBuilder actual = new StringBuilder();
+		boolean entreComillas = false;
+		for (int i = 0; i < linea.length(); i++) {
+			char c = linea.charAt(i);
+			if (entreComillas) {
+				if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+					actual.append('"');
+					i++;
+				} else if (c == '"') {
+					entreComillas = false;
+				} else {
+					actual.append(c);
+				}
+			} else if (c == '"') {
+				entreComillas = true;
+			} else if (c == ',') {
+				campos.add(actual.toString());
+				actual.setLength(0);
+			} else {
+				actual.append(c);
+			}
+		}
+		if (entreComillas) {
+			throw new IllegalArgumentException("Comillas sin cerrar");
+		}
+		campos.add(actual.toString());
+		return campos;
+	}
+	
+	/**
+	 * Parser JSON mínimo para una línea: objetos (Map), listas (List), textos,
+	 * números (Double), true/false y null.
+	 */
+	private static class LectorJson {
+		private String texto;
+		private int pos;
+		
+		LectorJson(String texto) {
+			this.texto = texto;
+		}
+		
+		Object leerDocumento() {
+			Object valor = leerValor();
+			saltarEspacios();
+			if (pos != texto.length()) {
+				throw error("contenido de más");
+			}
+			return valor;
+		}
+		
+		private Object leerValor() {
+			saltarEspacios();
+			if (pos >= texto.length()) {
+				throw error("fin inesperado");
+			}
+			char c = texto.charAt(pos);
+			switch (c) {
+				case '{': return leerObjeto();
+				case '[': return leerLista();
+				case '"': return leerTexto();
+				case 't': return leerLiteral("true", Boolean.TRUE);
+				case 'f': return leerLiteral("false", Boolean.FALSE);
+				case 'n': return leerLiteral("null", null);
+				default: return leerNumero();
+			}
+		}
+		
+		private Map<String, Object> leerObjeto() {
+			Map<String, Object> objeto = new LinkedHashMap<>();
+			pos++;
+			saltarEspacios();
+			if (consumir('}')) return objeto;
+			do {
+				saltarEspacios();
+				if (pos >= texto.length() || texto.charAt(pos) != '"') {
+					throw error("se esperaba una clave");
+				}
+				String clave = leerTexto();
+				saltarEspacios();
+				if (!consumir(':')) throw error("se esperaba ':'");
+				objeto.put(clave, leerValor());
+				saltarEspacios();
+			} while (consumir(','));
+			if (!consumir('}')) throw error("se esperaba '}'");
+			return objeto;
+		}
+		
+		private List<Object> leerLista() {
+			List<Object> lista = new ArrayList<>();
+			pos++;
+			saltarEspacios();
+			if (consumir(']')) return lista;
+			do {
+				lista.add(leerValor());
+				saltarEspacios();
+			} while (consumir(','));
+			if (!consumir(']')) throw error("se esperaba ']'");
+			return lista;
+		}
+		
+		private String leerTexto() {
+			StringBuilder sb = new StringBuilder();
+			pos++;
+			while (pos < texto.length()) {
+				char c = texto.charAt(pos++);
+				if (c == '"') return sb.toString();
+				if (c != '\\') {
+					sb.append(c);
+					continue;
+				}
+				if (pos >= texto.length()) break;
+				char escape = texto.charAt(pos++);
+				switch (escape) {
+					case 'n': sb.append('\n'); break;
+					case 't': sb.append('\t'); break;
+					case 'r': sb.append('\r'); break;
+					case 'b': sb.append('\b'); break;
+					case 'f': sb.append('\f'); break;
+					case 'u':
+						if (pos + 4 > texto.length()) throw error("escape \\u incompleto");
+						sb.append((char) Integer.parseInt(texto.substring(pos, pos + 4), 16));
+						pos += 4;
+						break;
+					default: sb.append(escape); // \" \\ \/
+				}
+			}
+			throw error("texto sin cerrar");
+		}
+		
+		private Double leerNumero() {
+			int inicio = pos;
+			while (pos < texto.length() && "+-0123456789.eE".indexOf(texto.charAt(pos)) >= 0) {
+				pos++;
+			}
+			try {
+				return Double.valueOf(texto.substring(inicio, pos));
+			} catch (NumberFormatException e) {
+				throw error("valor inválido");
+			}
+		}
+		
+		private Object leerLiteral(String literal, Object valor) {
+			if (!texto.startsWith(literal, pos)) throw error("valor inválido");
+			pos += literal.length();
+			return valor;
+		}
+		
+		private boolean consumir(char c) {
+			if (pos < texto.length() && texto.charAt(pos) == c) {
+				pos++;
+				return true;
+			}
+			return false;
+		}
+		
+		private void saltarEspacios() {
+			while (pos < texto.length() && Character.isWhitespace(texto.charAt(pos))) {
+				pos++;
+			}
+		}
+		
+		private IllegalArgumentException error(String detalle) {
+			return new IllegalArgumentException("JSON inválido en la posición " + pos + ": " + detalle);
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package entidades;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Índice secundario de proyectos por estado.
+ * Guarda (número, domicilio) de cada proyecto en el grupo de su estado actual,
+ * así las consultas por estado cuestan lo mismo que el tamaño del resultado.
+ * Cada grupo está ordenado por número, para poder paginarlo con un cursor.
+ */
+public class IndiceEstados implements ObservadorProyecto {
+	private Map<String, NavigableMap<Integer, String>> porEstado;
+	
+	public IndiceEstados() {
+		this.porEstado = new HashMap<>();
+		porEstado.put(Estado.pendiente, new TreeMap<>());
+		porEstado.put(Estado.activo, new TreeMap<>());
+		porEstado.put(Estado.finalizado, new TreeMap<>());
+	}
+	
+	public synchronized void agregar(Proyecto proyecto) {
+		grupo(proyecto.getEstado()).put(proyecto.getNumeroProyecto(), proyecto.getDireccion());
+	}
+	
+	// para proyectos que todavía no se cargaron de una instantánea
+	public synchronized void agregar(CabeceraProyecto cabecera) {
+		grupo(cabecera.getEstado()).put(cabecera.getNumero(), cabecera.getDireccion());
+	}
+	
+	@Override
+	public synchronized void estadoCambiado(Proyecto proyecto, String estadoAnterior) {
+		grupo(estadoAnterior).remove(proyecto.getNumeroProyecto());
+		agregar(proyecto);
+	}
+	
+	public synchronized List<Tupla<Integer, String>> proyectosEn(String estado) {
+		Map<Integer, String> grupo = grupo(estado);
+		List<Tupla<Integer, String>> resultado = new ArrayList<>(grupo.size());
+		for (Map.Entry<Integer, String> e : grupo.entrySet()) {
+			resultado.add(new Tupla<>(e.getKey(), e.getValue()));
+		}
+		return resultado;
+	}
+	
+	public synchronized int cantidadEn(String estado) {
+		return grupo(estado).size();
+	}
+	
+	/**
+	 * Hasta tamanio proyectos del estado con número mayor a desde, en orden.
+	 * Cuesta O(log n + tamanio).
+	 */
+	public synchronized Pagina<Tupla<Integer, String>> pagina(String estado, int desde, int tamanio) {
+		if (!porEstado.containsKey(estado)) {
+			throw new IllegalArgumentException("Estado inválido: " + estado);
+		}
+		NavigableMap<Integer, String> grupo = grupo(estado);
+		// no más de lo que hay: el tamaño lo elige quien llama y puede ser enorme
+		List<Tupla<Integer, String>> elementos = new ArrayList<>(Math.min(tamanio, grupo.size()));
+		Integer ultimo = null;
+		for (Map.Entry<Integer, String> e : grupo.tailMap(desde, false).entrySet()) {
+			if (elementos.size() == tamanio) {
+				return new Pagina<>(elementos, Pagina.cursorDe(ultimo));
+			}
+			elementos.add(new Tupla<>(e.getKey(), e.getValue()));
+			ultimo = e.getKey();
+		}
+		return new Pagina<>(elementos, null);
+	}
+	
+	private NavigableMap<Integer, String> grupo(String estado) {
+		return porEstado.computeIfAbsent(estado, e -> new TreeMap<>());
+	}
+}
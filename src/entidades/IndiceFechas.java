@@ -0,0 +1,79 @@
+package entidades;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Índices ordenados de proyectos por fecha de inicio y por fecha de fin estimada.
+ * Cada fecha guarda (número, domicilio) de sus proyectos, así una consulta por
+ * rango cuesta O(log n + k) en lugar de recorrer todos los proyectos.
+ */
+public class IndiceFechas implements ObservadorProyecto {
+	private NavigableMap<LocalDate, NavigableMap<Integer, String>> porInicio;
+	private NavigableMap<LocalDate, NavigableMap<Integer, String>> porFinEstimado;
+	
+	public IndiceFechas() {
+		this.porInicio = new TreeMap<>();
+		this.porFinEstimado = new TreeMap<>();
+	}
+	
+	public synchronized void agregar(Proyecto proyecto) {
+		poner(porInicio, proyecto.getFechaInicio(), proyecto.getNumeroProyecto(), proyecto.getDireccion());
+		poner(porFinEstimado, proyecto.getFechaFinEstimado(), proyecto.getNumeroProyecto(), proyecto.getDireccion());
+	}
+	
+	// para proyectos que todavía no se cargaron de una instantánea
+	public synchronized void agregar(CabeceraProyecto cabecera) {
+		poner(porInicio, cabecera.getFechaInicio(), cabecera.getNumero(), cabecera.getDireccion());
+		poner(porFinEstimado, cabecera.getFechaFinEstimado(), cabecera.getNumero(), cabecera.getDireccion());
+	}
+	
+	@Override
+	public void estadoCambiado(Proyecto proyecto, String estadoAnterior) {
+		// las fechas indexadas no dependen del estado
+	}
+	
+	@Override
+	public synchronized void fechaFinCambiada(Proyecto proyecto, LocalDate fechaAnterior) {
+		NavigableMap<Integer, String> grupo = porFinEstimado.get(fechaAnterior);
+		if (grupo != null) {
+			grupo.remove(proyecto.getNumeroProyecto());
+			if (grupo.isEmpty()) {
+				porFinEstimado.remove(fechaAnterior);
+			}
+		}
+		poner(porFinEstimado, proyecto.getFechaFinEstimado(), proyecto.getNumeroProyecto(), proyecto.getDireccion());
+	}
+	
+	// proyectos con fecha de inicio entre desde y hasta, ambas incluidas
+	public synchronized List<Tupla<Integer, String>> queEmpiezanEntre(LocalDate desde, LocalDate hasta) {
+		return rango(porInicio, desde, hasta);
+	}
+	
+	// proyectos con fecha de fin estimada entre desde y hasta, ambas incluidas
+	public synchronized List<Tupla<Integer, String>> queTerminanEntre(LocalDate desde, LocalDate hasta) {
+		return rango(porFinEstimado, desde, hasta);
+	}
+	
+	// ordenados por fecha y, dentro de la misma fecha, por número
+	private static List<Tupla<Integer, String>> rango(NavigableMap<LocalDate, NavigableMap<Integer, String>> indice,
+			LocalDate desde, LocalDate hasta) {
+		Proyecto.validarFechas(desde, hasta);
+		List<Tupla<Integer, String>> resultado = new ArrayList<>();
+		for (NavigableMap<Integer, String> grupo : indice.subMap(desde, true, hasta, true).values()) {
+			for (Map.Entry<Integer, String> e : grupo.entrySet()) {
+				resultado.add(new Tupla<>(e.getKey(), e.getValue()));
+			}
+		}
+		return resultado;
+	}
+	
+	private static void poner(NavigableMap<LocalDate, NavigableMap<Integer, String>> indice, LocalDate fecha,
+			int numero, String direccion) {
+		indice.computeIfAbsent(fecha, f -> new TreeMap<>()).put(numero, direccion);
+	}
+}
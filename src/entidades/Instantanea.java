@@ -0,0 +1,378 @@
+package entidades;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Instantánea binaria de todo el estado de HomeSolution.
+ *
+ * Formato (versión 3):
+ *   "HSSN", versión, id de la cadena de deltas y último delta que ya incluye (0 y 0 si no hay cadena)
+ *   contador de proyectos, contador de legajos
+ *   cantidad de empleados, y cada empleado (los disponibles primero, en orden FIFO),
+ *   con su turno de entrada a la fila de disponibles
+ *   cantidad de proyectos, y cada proyecto como cabecera + largo + cuerpo
+ *   crc32 de todo lo anterior
+ *
+ * La cabecera de cada proyecto (número, estado, domicilio, cliente, fechas y costo)
+ * alcanza para los índices de la cartera; el cuerpo (cliente completo, tareas e
+ * historial) se puede saltear o leer aparte. Restaurar no pasa por las validaciones
+ * de registrarProyecto ni vuelve a parsear fechas, y dimensiona los mapas de antemano.
+ */
+public class Instantanea {
+	static final int MAGICO = 0x4853534E; // "HSSN"
+	static final int VERSION = 3;
+	private static final int TAMANIO_BUFFER = 1 << 20;
+	private static final long SIN_FECHA = Long.MIN_VALUE;
+	private static final byte CONTRATADO = 0;
+	private static final byte PLANTA = 1;
+	
+	private Instantanea() {
+	}
+	
+	/**
+	 * Guarda el estado completo del sistema. Escribe a un archivo temporal y lo
+	 * reemplaza al final, así una caída a mitad de camino no pisa la anterior.
+	 * @param sistema Sistema a guardar.
+	 * @param archivo Archivo destino.
+	 */
+	public static void guardar(HomeSolution sistema, Path archivo) throws IOException {
+		guardar(sistema, archivo, 0, 0);
+	}
+	
+	// la base de una cadena de PuntosDeControl: anota qué cadena es y hasta qué delta incluye
+	static void guardar(HomeSolution sistema, Path archivo, long idCadena, int secuencia) throws IOException {
+		Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+		CRC32 crc = new CRC32();
+		try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+				new BufferedOutputStream(Files.newOutputStream(temporal), TAMANIO_BUFFER), crc))) {
+			out.writeInt(MAGICO);
+			out.writeInt(VERSION);
+			out.writeLong(idCadena);
+			out.writeInt(secuencia);
+			out.writeInt(sistema.getContadorProyectos());
+			out.writeInt(sistema.getContadorLegajos());
+
+			List<Empleado> empleados = sistema.empleadosEnOrdenDePool();
+			out.writeInt(empleados.size());
+			for (Empleado e : empleados) {
+				escribirEmpleado(out, e);
+			}
+
+			// los proyectos que siguen sin abrir en una instantánea mapeada se copian tal cual;
+			// si alguno se abre mientras tanto, se escribe el de memoria
+			InstantaneaMapeada diferidos = sistema.getDiferidos();
+			Tupla<List<Proyecto>, Set<Integer>> proyectosYPendientes = sistema.proyectosYPendientes();
+			List<Proyecto> proyectos = proyectosYPendientes.getValor1();
+			Set<Integer> sinAbrir = proyectosYPendientes.getValor2();
+			out.writeInt(proyectos.size() + sinAbrir.size());
+			ByteArrayOutputStream cuerpo = new ByteArrayOutputStream();
+			for (Proyecto p : proyectos) {
+				escribirProyecto(out, p, cuerpo);
+			}
+			for (Integer numero : sinAbrir) {
+				if (!diferidos.copiar(numero, out)) {
+					escribirProyecto(out, sistema.buscarProyecto(numero), cuerpo);
+				}
+			}
+			out.flush();
+			out.writeLong(crc.getValue());
+		}
+		reemplazar(temporal, archivo);
+	}
+	
+	// baja el temporal a disco antes de moverlo: si no, una caída justo después puede dejar el
+	// archivo nuevo truncado y quien lo siga (por ejemplo PuntosDeControl borrando los deltas) pierde datos
+	static void reemplazar(Path temporal, Path archivo) throws IOException {
+		try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.WRITE)) {
+			canal.force(true);
+		}
+		Files.move(temporal, archivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		// y el directorio, para que el cambio de nombre también sobreviva; no todos los sistemas lo permiten
+		Path directorio = archivo.toAbsolutePath().getParent();
+		try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+			canal.force(true);
+		} catch (IOException e) {
+			// el archivo ya quedó completo en disco
+		}
+	}
+	
+	/**
+	 * Reconstruye un sistema a partir de una instantánea.
+	 * @param archivo Archivo de la instantánea.
+	 * @throws IOException Si el archivo no es válido o el checksum no coincide.
+	 */
+	public static HomeSolution restaurar(Path archivo) throws IOException {
+		return restaurar(archivo, new DeltaInstantanea());
+	}
+	
+	// restaura la instantánea reemplazando lo que cambiaron los deltas acumulados
+	static HomeSolution restaurar(Path archivo, DeltaInstantanea cambios) throws IOException {
+		CRC32 crc = new CRC32();
+		try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+				new BufferedInputStream(Files.newInputStream(archivo), TAMANIO_BUFFER), crc))) {
+			validarCabecera(in, archivo);
+			int contadorProyectos = in.readInt();
+			int contadorLegajos = in.readInt();
+			if (cambios.hayContadores()) {
+				contadorProyectos = cambios.getContadorProyectos();
+				contadorLegajos = cambios.getContadorLegajos();
+			}
+
+			int cantidadEmpleados = in.readInt();
+			LinkedHashMap<Integer, Empleado> empleados = new LinkedHashMap<>(capacidad(cantidadEmpleados));
+			for (int i = 0; i < cantidadEmpleados; i++) {
+				Empleado e = leerEmpleado(in);
+				empleados.put(e.getLegajo(), e);
+			}
+			cambios.aplicarEmpleados(empleados);
+
+			int cantidadProyectos = in.readInt();
+			HomeSolution sistema = new HomeSolution(capacidad(cantidadProyectos + cambios.cantidadProyectos()),
+					capacidad(empleados.size()));
+			sistema.restaurarContadores(contadorProyectos, contadorLegajos);
+			for (Empleado e : ordenParaPool(empleados.values())) {
+				sistema.restaurarEmpleado(e);
+			}
+
+			for (int i = 0; i < cantidadProyectos; i++) {
+				CabeceraProyecto cabecera = leerCabecera(in);
+				int largo = in.readInt(); // largo del cuerpo, lo usan la lectura diferida y los deltas
+				byte[] nuevo = cambios.tomarProyecto(cabecera.getNumero());
+				if (nuevo == null) {
+					sistema.restaurarProyecto(leerCuerpo(cabecera, largo, in, sistema));
+				} else {
+					in.skipNBytes(largo);
+					sistema.restaurarProyecto(leerRegistro(nuevo, sistema));
+				}
+			}
+			for (byte[] registro : cambios.proyectosRestantes()) {
+				sistema.restaurarProyecto(leerRegistro(registro, sistema));
+			}
+
+			long calculado = crc.getValue();
+			if (in.readLong() != calculado) {
+				throw new IOException("La instantánea está dañada (checksum inválido): " + archivo);
+			}
+			sistema.getCambios().limpiar();
+			return sistema;
+		}
+	}
+	
+	// id de la cadena y último delta incluido, sin leer el resto del archivo
+	static Tupla<Long, Integer> cadena(Path archivo) throws IOException {
+		try (DataInputStream in = new DataInputStream(Files.newInputStream(archivo))) {
+			if (in.readInt() != MAGICO || in.readInt() != VERSION) {
+				throw new IOException("El archivo no es una instantánea válida: " + archivo);
+			}
+			return new Tupla<>(in.readLong(), in.readInt());
+		}
+	}
+	
+	/**
+	 * Abre una instantánea sin cargar los proyectos: el archivo se mapea en memoria,
+	 * se leen los empleados y las cabeceras de los proyectos (para los índices por
+	 * estado y los totales de costo) y cada proyecto se arma recién cuando una
+	 * operación lo necesita. No verifica el checksum, porque eso obligaría a leer el
+	 * archivo entero; para eso está restaurar.
+	 * @param archivo Archivo de la instantánea.
+	 * @throws IOException Si el archivo no es válido.
+	 */
+	public static HomeSolution abrir(Path archivo) throws IOException {
+		return InstantaneaMapeada.abrir(archivo);
+	}
+	
+	// ESCRITURA
+	
+	// los disponibles primero y por turno, para que el pool quede con la misma fila FIFO que al guardar
+	static List<Empleado> ordenParaPool(Collection<Empleado> empleados) {
+		List<Empleado> disponibles = new ArrayList<>();
+		List<Empleado> ocupados = new ArrayList<>();
+		for (Empleado e : empleados) {
+			(e.estaDisponible() ? disponibles : ocupados).add(e);
+		}
+		disponibles.sort(Comparator.comparingLong(Empleado::getTurnoEnPool));
+		disponibles.addAll(ocupados);
+		return disponibles;
+	}
+	
+	static void validarCabecera(DataInput in, Path archivo) throws IOException {
+		if (in.readInt() != MAGICO || in.readInt() != VERSION) {
+			throw new IOException("El archivo no es una instantánea válida: " + archivo);
+		}
+		in.readLong(); // la cadena solo le importa a PuntosDeControl
+		in.readInt();
+	}
+	
+	static void escribirEmpleado(DataOutput out, Empleado e) throws IOException {
+		if (e instanceof EmpleadoPlanta) {
+			EmpleadoPlanta ep = (EmpleadoPlanta) e;
+			out.writeByte(PLANTA);
+			out.writeInt(e.getLegajo());
+			out.writeUTF(e.getNombre());
+			out.writeDouble(ep.getValorDia());
+			out.writeUTF(ep.getCategoria());
+		} else {
+			out.writeByte(CONTRATADO);
+			out.writeInt(e.getLegajo());
+			out.writeUTF(e.getNombre());
+			out.writeDouble(((EmpleadoContratado) e).getValorHora());
+		}
+		out.writeBoolean(e.estaDisponible());
+		out.writeLong(e.getTurnoEnPool());
+		Map<Integer, Integer> retrasos = e.getRetrasosPorProyecto();
+		out.writeInt(retrasos.size());
+		for (Map.Entry<Integer, Integer> r : retrasos.entrySet()) {
+			out.writeInt(r.getKey());
+			out.writeInt(r.getValue());
+		}
+	}
+	
+	static void escribirProyecto(DataOutputStream out, Proyecto p, ByteArrayOutputStream cuerpo) throws IOException {
+		out.writeInt(p.getNumeroProyecto());
+		out.writeUTF(p.getEstado());
+		out.writeUTF(p.getDireccion());
+		out.writeUTF(p.getCliente().getNombre());
+		out.writeLong(p.getFechaInicio().toEpochDay());
+		out.writeLong(p.getFechaFinEstimado().toEpochDay());
+		out.writeDouble(p.getCostoProyecto());
+
+		cuerpo.reset();
+		DataOutputStream c = new DataOutputStream(cuerpo);
+		c.writeUTF(p.getCliente().getTelefono());
+		c.writeUTF(p.getCliente().getEmail());
+		c.writeLong(p.getFechaFinReal() != null ? p.getFechaFinReal().toEpochDay() : SIN_FECHA);
+		List<Empleado> historial = p.obtenerHistorialEmpleados();
+		c.writeInt(historial.size());
+		for (Empleado e : historial) {
+			c.writeInt(e.getLegajo());
+		}
+		c.writeInt(p.getTareas().size());
+		for (Tarea t : p.getTareas().values()) {
+			c.writeUTF(t.getTitulo());
+			c.writeUTF(t.getDescripcion());
+			c.writeInt(t.getDiasNecesarios());
+			c.writeInt(t.getDiasRetraso());
+			c.writeBoolean(t.estaTerminada());
+			c.writeDouble(t.getCostoDiarioFinal());
+			c.writeInt(t.getEmpleadoAsignado() != null ? t.getEmpleadoAsignado().getLegajo() : 0);
+		}
+		// dependencias al final del cuerpo: los registros viejos terminan antes y se leen sin ellas
+		int cantidadDependencias = 0;
+		for (Tarea t : p.getTareas().values()) {
+			cantidadDependencias += p.getPredecesoras(t).size();
+		}
+		c.writeInt(cantidadDependencias);
+		for (Tarea t : p.getTareas().values()) {
+			for (Tarea predecesora : p.getPredecesoras(t)) {
+				c.writeUTF(t.getTitulo());
+				c.writeUTF(predecesora.getTitulo());
+			}
+		}
+		c.flush();
+		out.writeInt(cuerpo.size());
+		cuerpo.writeTo(out);
+	}
+	
+	// LECTURA
+	
+	static Empleado leerEmpleado(DataInput in) throws IOException {
+		byte tipo = in.readByte();
+		int legajo = in.readInt();
+		String nombre = in.readUTF();
+		double valor = in.readDouble();
+		Empleado e = tipo == PLANTA
+				? new EmpleadoPlanta(legajo, nombre, valor, in.readUTF())
+				: new EmpleadoContratado(legajo, nombre, valor);
+		boolean disponible = in.readBoolean();
+		long turno = in.readLong();
+		int cantidad = in.readInt();
+		Map<Integer, Integer> retrasos = new HashMap<>(capacidad(cantidad));
+		for (int i = 0; i < cantidad; i++) {
+			retrasos.put(in.readInt(), in.readInt());
+		}
+		e.restaurarEstado(disponible, turno, retrasos);
+		return e;
+	}
+	
+	static CabeceraProyecto leerCabecera(DataInput in) throws IOException {
+		return new CabeceraProyecto(in.readInt(), in.readUTF(), in.readUTF(), in.readUTF(),
+				LocalDate.ofEpochDay(in.readLong()), LocalDate.ofEpochDay(in.readLong()), in.readDouble());
+	}
+	
+	// arma el proyecto completo a partir de su cabecera y su cuerpo
+	static Proyecto leerCuerpo(CabeceraProyecto cabecera, int largo, DataInput entrada, HomeSolution sistema) throws IOException {
+		byte[] bytes = new byte[largo];
+		entrada.readFully(bytes);
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+		Cliente cliente = new Cliente(cabecera.getCliente(), in.readUTF(), in.readUTF());
+		long finReal = in.readLong();
+
+		int cantidadHistorial = in.readInt();
+		List<Empleado> historial = new ArrayList<>(cantidadHistorial);
+		for (int i = 0; i < cantidadHistorial; i++) {
+			historial.add(sistema.buscarEmpleado(in.readInt()));
+		}
+
+		int cantidadTareas = in.readInt();
+		Map<String, Tarea> tareas = new HashMap<>(capacidad(cantidadTareas));
+		for (int i = 0; i < cantidadTareas; i++) {
+			Tarea t = new Tarea(in.readUTF(), in.readUTF(), in.readInt());
+			int diasRetraso = in.readInt();
+			boolean terminada = in.readBoolean();
+			double costoDiarioFinal = in.readDouble();
+			int legajo = in.readInt();
+			t.restaurarEstado(diasRetraso, terminada, costoDiarioFinal, legajo != 0 ? sistema.buscarEmpleado(legajo) : null);
+			tareas.put(t.getClave(), t);
+		}
+
+		Proyecto proyecto = new Proyecto(cabecera.getNumero(), cliente, cabecera.getDireccion(), cabecera.getFechaInicio(),
+				cabecera.getFechaFinEstimado(), finReal != SIN_FECHA ? LocalDate.ofEpochDay(finReal) : null,
+				cabecera.getEstado(), tareas, historial);
+		if (in.available() > 0) {
+			int cantidadDependencias = in.readInt();
+			for (int i = 0; i < cantidadDependencias; i++) {
+				Tarea tarea = proyecto.obtenerTarea(in.readUTF());
+				proyecto.restaurarDependencia(tarea, proyecto.obtenerTarea(in.readUTF()));
+			}
+			proyecto.recalcularCronograma();
+		}
+		return proyecto;
+	}
+	
+	// un registro de proyecto completo (cabecera, largo y cuerpo) ya leído en memoria
+	static Proyecto leerRegistro(byte[] registro, HomeSolution sistema) throws IOException {
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(registro));
+		CabeceraProyecto cabecera = leerCabecera(in);
+		return leerCuerpo(cabecera, in.readInt(), in, sistema);
+	}
+	
+	// capacidad de un HashMap para n elementos sin que tenga que crecer
+	static int capacidad(int elementos) {
+		return (int) (elementos / 0.75f) + 1;
+	}
+}
@@ -0,0 +1,179 @@
+package entidades;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Instantánea mapeada en memoria con los proyectos todavía sin armar.
+ * Guarda, por número de proyecto, dónde empieza su registro en el archivo; el
+ * proyecto se lee de ahí la primera vez que se lo pide y sale del índice.
+ * Así el arranque y la memoria ocupada no dependen de cuántos proyectos viejos
+ * tenga el archivo, sino de cuántos se usan.
+ */
+public class InstantaneaMapeada {
+	private final Path archivo;
+	private final MappedByteBuffer buffer;
+	private final Map<Integer, Integer> posiciones;
+
+	private InstantaneaMapeada(Path archivo, MappedByteBuffer buffer, int cantidadProyectos) {
+		this.archivo = archivo;
+		this.buffer = buffer;
+		this.posiciones = new ConcurrentHashMap<>(Instantanea.capacidad(cantidadProyectos));
+	}
+
+	static HomeSolution abrir(Path archivo) throws IOException {
+		MappedByteBuffer buffer;
+		try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+			if (canal.size() > Integer.MAX_VALUE) {
+				throw new IOException("La instantánea es demasiado grande para mapearla: " + archivo);
+			}
+			// el mapeo sigue siendo válido después de cerrar el canal
+			buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+		}
+
+		ByteBuffer lectura = buffer.duplicate();
+		DataInputStream in = new DataInputStream(new EntradaMapeada(lectura));
+		Instantanea.validarCabecera(in, archivo);
+		int contadorProyectos = in.readInt();
+		int contadorLegajos = in.readInt();
+
+		int cantidadEmpleados = in.readInt();
+		Empleado[] empleados = new Empleado[cantidadEmpleados];
+		for (int i = 0; i < cantidadEmpleados; i++) {
+			empleados[i] = Instantanea.leerEmpleado(in);
+		}
+
+		int cantidadProyectos = in.readInt();
+		HomeSolution sistema = new HomeSolution(16, Instantanea.capacidad(cantidadEmpleados));
+		sistema.restaurarContadores(contadorProyectos, contadorLegajos);
+		for (Empleado e : Instantanea.ordenParaPool(Arrays.asList(empleados))) {
+			sistema.restaurarEmpleado(e);
+		}
+
+		InstantaneaMapeada mapeada = new InstantaneaMapeada(archivo, buffer, cantidadProyectos);
+		for (int i = 0; i < cantidadProyectos; i++) {
+			int posicion = lectura.position();
+			CabeceraProyecto cabecera = Instantanea.leerCabecera(in);
+			int largo = in.readInt();
+			if (largo < 0 || largo > lectura.remaining()) {
+				throw new IOException("La instantánea está dañada: " + archivo);
+			}
+			lectura.position(lectura.position() + largo);
+			mapeada.posiciones.put(cabecera.getNumero(), posicion);
+			sistema.restaurarCabecera(cabecera);
+		}
+		sistema.usarDiferidos(mapeada);
+		sistema.getCambios().limpiar();
+		return sistema;
+	}
+
+	boolean contiene(int numero) {
+		return posiciones.containsKey(numero);
+	}
+
+	// números de los proyectos que todavía no se armaron
+	Set<Integer> pendientes() {
+		return new HashSet<>(posiciones.keySet());
+	}
+
+	/**
+	 * Arma el proyecto a partir de su registro y lo saca del índice.
+	 * @return El proyecto, o null si no estaba pendiente.
+	 */
+	Proyecto materializar(int numero, HomeSolution sistema) {
+		Proyecto proyecto = leer(numero, sistema);
+		if (proyecto != null) {
+			posiciones.remove(numero);
+		}
+		return proyecto;
+	}
+
+	// arma el proyecto sin sacarlo del índice; quien llama no lo retiene (por ejemplo al exportar)
+	Proyecto leer(int numero, HomeSolution sistema) {
+		Integer posicion = posiciones.get(numero);
+		if (posicion == null) {
+			return null;
+		}
+		try {
+			DataInputStream in = entradaDesde(posicion);
+			CabeceraProyecto cabecera = Instantanea.leerCabecera(in);
+			return Instantanea.leerCuerpo(cabecera, in.readInt(), in, sistema);
+		} catch (IOException e) {
+			throw new UncheckedIOException("No se pudo leer el proyecto " + numero + " de " + archivo, e);
+		}
+	}
+
+	/**
+	 * Copia el registro del proyecto sin armarlo, tal como está en el archivo.
+	 * @return false si el proyecto ya se armó: entonces hay que escribir el de memoria.
+	 */
+	boolean copiar(int numero, DataOutputStream out) throws IOException {
+		Integer posicion = posiciones.get(numero);
+		if (posicion == null) {
+			return false;
+		}
+		ByteBuffer lectura = buffer.duplicate();
+		lectura.position(posicion);
+		DataInputStream in = new DataInputStream(new EntradaMapeada(lectura));
+		Instantanea.leerCabecera(in);
+		int largo = in.readInt();
+		int fin = lectura.position() + largo;
+
+		byte[] registro = new byte[fin - posicion];
+		lectura.position(posicion);
+		lectura.get(registro);
+		out.write(registro);
+		return true;
+	}
+
+	private DataInputStream entradaDesde(int posicion) {
+		ByteBuffer lectura = buffer.duplicate();
+		lectura.position(posicion);
+		return new DataInputStream(new EntradaMapeada(lectura));
+	}
+
+	// adapta un ByteBuffer a InputStream para leerlo con DataInputStream
+	private static class EntradaMapeada extends InputStream {
+		private final ByteBuffer buffer;
+
+		EntradaMapeada(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] destino, int desde, int largo) {
+			if (largo == 0) {
+				return 0;
+			}
+			if (!buffer.hasRemaining()) {
+				return -1;
+			}
+			int leidos = Math.min(largo, buffer.remaining());
+			buffer.get(destino, desde, leidos);
+			return leidos;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+	}
+}
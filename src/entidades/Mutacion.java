@@ -0,0 +1,315 @@
+package entidades;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Una operación que modifica el estado de HomeSolution, codificada en binario para
+ * guardarla en el registro de mutaciones. Las asignaciones guardan el legajo que
+ * quedó asignado, así reproducirlas da siempre el mismo resultado.
+ */
+public class Mutacion {
+	static final byte REGISTRAR_CONTRATADO = 1;
+	static final byte REGISTRAR_PLANTA = 2;
+	static final byte REGISTRAR_LOTE = 3;
+	static final byte REGISTRAR_PROYECTO = 4;
+	static final byte ASIGNAR = 5;
+	static final byte REGISTRAR_RETRASO = 6;
+	static final byte AGREGAR_TAREA = 7;
+	static final byte FINALIZAR_TAREA = 8;
+	static final byte FINALIZAR_PROYECTO = 9;
+	static final byte REASIGNAR = 10;
+	static final byte AGREGAR_DEPENDENCIA = 11;
+	
+	private byte tipo;
+	private byte[] datos;
+	
+	Mutacion(byte tipo, byte[] datos) {
+		this.tipo = tipo;
+		this.datos = datos;
+	}
+	
+	public byte getTipo() {
+		return tipo;
+	}
+	
+	byte[] getDatos() {
+		return datos;
+	}
+	
+	// REGISTROS
+	public static Mutacion registrarContratado(String nombre, double valor) {
+		return codificar(REGISTRAR_CONTRATADO, out -> {
+			out.writeUTF(nombre);
+			out.writeDouble(valor);
+		});
+	}
+	
+	public static Mutacion registrarPlanta(String nombre, double valor, String categoria) {
+		return codificar(REGISTRAR_PLANTA, out -> {
+			out.writeUTF(nombre);
+			out.writeDouble(valor);
+			out.writeUTF(categoria);
+		});
+	}
+	
+	public static Mutacion registrarLote(String[] nombres, double[] valores, String[] categorias) {
+		return codificar(REGISTRAR_LOTE, out -> {
+			escribirTextos(out, nombres);
+			escribirNumeros(out, valores);
+			out.writeBoolean(categorias != null);
+			if (categorias != null) {
+				// una categoría null indica contratado
+				for (String c : categorias) {
+					out.writeBoolean(c != null);
+					if (c != null) out.writeUTF(c);
+				}
+			}
+		});
+	}
+	
+	public static Mutacion registrarProyecto(String[] titulos, String[] descripcion, double[] dias,
+			String domicilio, String[] cliente, String inicio, String fin) {
+		return codificar(REGISTRAR_PROYECTO, out -> {
+			escribirTextos(out, titulos);
+			escribirTextos(out, descripcion);
+			escribirNumeros(out, dias);
+			out.writeUTF(domicilio);
+			escribirTextos(out, cliente);
+			out.writeUTF(inicio);
+			out.writeUTF(fin);
+		});
+	}
+	
+	// OPERACIONES SOBRE UN PROYECTO
+	public static Mutacion asignar(Integer numero, String titulo, Integer legajo) {
+		return codificar(ASIGNAR, out -> {
+			out.writeInt(numero);
+			out.writeUTF(titulo);
+			out.writeInt(legajo);
+		});
+	}
+	
+	public static Mutacion registrarRetraso(Integer numero, String titulo, double dias) {
+		return codificar(REGISTRAR_RETRASO, out -> {
+			out.writeInt(numero);
+			out.writeUTF(titulo);
+			out.writeDouble(dias);
+		});
+	}
+	
+	public static Mutacion agregarTarea(Integer numero, String titulo, String descripcion, double dias) {
+		return codificar(AGREGAR_TAREA, out -> {
+			out.writeInt(numero);
+			out.writeUTF(titulo);
+			out.writeUTF(descripcion);
+			out.writeDouble(dias);
+		});
+	}
+	
+	public static Mutacion agregarDependencia(Integer numero, String titulo, String predecesora) {
+		return codificar(AGREGAR_DEPENDENCIA, out -> {
+			out.writeInt(numero);
+			out.writeUTF(titulo);
+			out.writeUTF(predecesora);
+		});
+	}
+	
+	public static Mutacion finalizarTarea(Integer numero, String titulo) {
+		return codificar(FINALIZAR_TAREA, out -> {
+			out.writeInt(numero);
+			out.writeUTF(titulo);
+		});
+	}
+	
+	public static Mutacion finalizarProyecto(Integer numero, String fin) {
+		return codificar(FINALIZAR_PROYECTO, out -> {
+			out.writeInt(numero);
+			out.writeUTF(fin);
+		});
+	}
+	
+	public static Mutacion reasignar(Integer numero, Integer legajo, String titulo) {
+		return codificar(REASIGNAR, out -> {
+			out.writeInt(numero);
+			out.writeInt(legajo);
+			out.writeUTF(titulo);
+		});
+	}
+	
+	// traduce un comando de un lote ya aplicado, con el legajo que resultó asignado
+	public static Mutacion desdeComando(Comando comando, Integer legajoAsignado) {
+		Integer numero = comando.getNumeroProyecto();
+		String titulo = comando.getTitulo();
+		switch (comando.getTipo()) {
+			case Comando.asignar:
+			case Comando.asignarMenosRetraso:
+				return asignar(numero, titulo, legajoAsignado);
+			case Comando.reasignar:
+			case Comando.reasignarMenosRetraso:
+				return reasignar(numero, legajoAsignado, titulo);
+			case Comando.registrarRetraso:
+				return registrarRetraso(numero, titulo, comando.getDias());
+			case Comando.finalizarTarea:
+				return finalizarTarea(numero, titulo);
+			case Comando.agregarTarea:
+				return agregarTarea(numero, titulo, comando.getDescripcion(), comando.getDias());
+			default:
+				throw new IllegalArgumentException("Tipo de comando desconocido: " + comando.getTipo());
+		}
+	}
+	
+	// número del proyecto que toca la mutación, o null si no toca uno ya existente
+	public Integer getNumeroProyecto() {
+		if (tipo < ASIGNAR) {
+			return null;
+		}
+		return ((datos[0] & 0xFF) << 24) | ((datos[1] & 0xFF) << 16) | ((datos[2] & 0xFF) << 8) | (datos[3] & 0xFF);
+	}
+	
+	// título de la tarea que toca la mutación, o null si no toca una tarea
+	String getTitulo() {
+		if (tipo < ASIGNAR || tipo == FINALIZAR_PROYECTO) {
+			return null;
+		}
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(datos))) {
+			in.readInt();
+			if (tipo == REASIGNAR) {
+				in.readInt();
+			}
+			return in.readUTF();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Vuelve a ejecutar la operación sobre el sistema.
+	 * @param sistema Sistema sobre el que se reproduce.
+	 */
+	public void aplicar(HomeSolution sistema) {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(datos))) {
+			switch (tipo) {
+				case REGISTRAR_CONTRATADO:
+					sistema.registrarEmpleado(in.readUTF(), in.readDouble());
+					break;
+				case REGISTRAR_PLANTA:
+					sistema.registrarEmpleado(in.readUTF(), in.readDouble(), in.readUTF());
+					break;
+				case REGISTRAR_LOTE: {
+					String[] nombres = leerTextos(in);
+					double[] valores = leerNumeros(in);
+					String[] categorias = null;
+					if (in.readBoolean()) {
+						categorias = new String[nombres.length];
+						for (int i = 0; i < categorias.length; i++) {
+							categorias[i] = in.readBoolean() ? in.readUTF() : null;
+						}
+					}
+					sistema.registrarEmpleados(nombres, valores, categorias);
+					break;
+				}
+				case REGISTRAR_PROYECTO:
+					sistema.registrarProyecto(leerTextos(in), leerTextos(in), leerNumeros(in), in.readUTF(),
+							leerTextos(in), in.readUTF(), in.readUTF());
+					break;
+				case ASIGNAR:
+					sistema.asignarEmpleadoEnTarea(in.readInt(), in.readUTF(), in.readInt());
+					break;
+				case REGISTRAR_RETRASO:
+					sistema.registrarRetrasoEnTarea(in.readInt(), in.readUTF(), in.readDouble());
+					break;
+				case AGREGAR_TAREA:
+					sistema.agregarTareaEnProyecto(in.readInt(), in.readUTF(), in.readUTF(), in.readDouble());
+					break;
+				case FINALIZAR_TAREA:
+					sistema.finalizarTarea(in.readInt(), in.readUTF());
+					break;
+				case FINALIZAR_PROYECTO:
+					sistema.finalizarProyecto(in.readInt(), in.readUTF());
+					break;
+				case REASIGNAR: {
+					int numero = in.readInt();
+					int legajo = in.readInt();
+					sistema.reasignarEmpleadoEnProyecto(numero, legajo, in.readUTF());
+					break;
+				}
+				case AGREGAR_DEPENDENCIA:
+					sistema.agregarDependenciaEnProyecto(in.readInt(), in.readUTF(), in.readUTF());
+					break;
+				default:
+					throw new IllegalStateException("Tipo de mutación desconocido: " + tipo);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * Como aplicar, pero sin cortar si el sistema la rechaza: HomeSolutionPersistente escribe
+	 * cada mutación antes de aplicarla y descarta las rechazadas, así que una rechazada solo
+	 * queda en el registro si hubo una caída justo antes de descartarla.
+	 * @return false si el sistema la rechazó.
+	 */
+	public boolean reproducir(HomeSolution sistema) {
+		try {
+			aplicar(sistema);
+			return true;
+		} catch (IllegalArgumentException | IllegalStateException e) {
+			return false;
+		}
+	}
+	
+	// METODOS AUXILIARES
+	
+	private interface Escritura {
+		void escribir(DataOutputStream out) throws IOException;
+	}
+	
+	private static Mutacion codificar(byte tipo, Escritura escritura) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			escritura.escribir(out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (NullPointerException e) {
+			// se codifica antes de aplicar, así que los datos todavía no pasaron por las validaciones
+			throw new IllegalArgumentException("Faltan datos para la operación");
+		}
+		return new Mutacion(tipo, bytes.toByteArray());
+	}
+	
+	private static void escribirTextos(DataOutputStream out, String[] textos) throws IOException {
+		out.writeInt(textos.length);
+		for (String t : textos) {
+			out.writeUTF(t);
+		}
+	}
+	
+	private static void escribirNumeros(DataOutputStream out, double[] numeros) throws IOException {
+		out.writeInt(numeros.length);
+		for (double n : numeros) {
+			out.writeDouble(n);
+		}
+	}
+	
+	private static String[] leerTextos(DataInputStream in) throws IOException {
+		String[] textos = new String[in.readInt()];
+		for (int i = 0; i < textos.length; i++) {
+			textos[i] = in.readUTF();
+		}
+		return textos;
+	}
+	
+	private static double[] leerNumeros(DataInputStream in) throws IOException {
+		double[] numeros = new double[in.readInt()];
+		for (int i = 0; i < numeros.length; i++) {
+			numeros[i] = in.readDouble();
+		}
+		return numeros;
+	}
+}
@@ -0,0 +1,21 @@
+package entidades;
+
+/**
+ * Recibe los cambios de un empleado, para que las estructuras de búsqueda
+ * de HomeSolution no tengan que recorrer todo el plantel.
+ */
+public interface ObservadorEmpleado {
+
+	/**
+	 * Se invoca cuando el empleado pasa de disponible a asignado o al revés.
+	 * @param empleado Empleado que cambió.
+	 */
+	void disponibilidadCambiada(Empleado empleado);
+	
+	/**
+	 * Se invoca cuando aumentan los retrasos totales del empleado.
+	 * @param empleado Empleado que cambió.
+	 */
+	default void retrasosCambiados(Empleado empleado) {
+	}
+}
@@ -0,0 +1,50 @@
+package entidades;
+
+import java.time.LocalDate;
+
+/**
+ * Recibe los cambios que ocurren dentro de un proyecto, para que los índices
+ * de HomeSolution se mantengan actualizados sin recorrer todos los proyectos.
+ */
+public interface ObservadorProyecto {
+
+	/**
+	 * Se invoca cada vez que el proyecto cambia de estado.
+	 * @param proyecto Proyecto que cambió.
+	 * @param estadoAnterior Estado que tenía antes del cambio.
+	 */
+	void estadoCambiado(Proyecto proyecto, String estadoAnterior);
+	
+	/**
+	 * Se invoca cuando cambia el costo total del proyecto.
+	 * @param proyecto Proyecto que cambió.
+	 * @param costoAnterior Costo que tenía antes del cambio.
+	 */
+	default void costoCambiado(Proyecto proyecto, double costoAnterior) {
+	}
+	
+	/**
+	 * Se invoca cuando cambia la fecha de fin estimada, por ejemplo al agregar una tarea.
+	 * @param proyecto Proyecto que cambió.
+	 * @param fechaAnterior Fecha de fin estimada que tenía antes del cambio.
+	 */
+	default void fechaFinCambiada(Proyecto proyecto, LocalDate fechaAnterior) {
+	}
+	
+	/**
+	 * Se invoca cuando una tarea del proyecto cambia: se agrega, se asigna, se libera,
+	 * se termina o se le registra un retraso.
+	 * @param proyecto Proyecto de la tarea.
+	 * @param tarea Tarea que cambió.
+	 */
+	default void tareaCambiada(Proyecto proyecto, Tarea tarea) {
+	}
+	
+	/**
+	 * Se invoca después de cualquier cambio en el proyecto o en sus tareas,
+	 * incluso los que no mueven el costo ni el estado.
+	 * @param proyecto Proyecto que cambió.
+	 */
+	default void proyectoModificado(Proyecto proyecto) {
+	}
+}
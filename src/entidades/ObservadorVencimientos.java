@@ -0,0 +1,25 @@
+package entidades;
+
+import java.time.LocalDate;
+
+/**
+ * Recibe los avisos de vencimiento de proyectos que detecta RuedaVencimientos.
+ * Los proyectos finalizados no generan avisos.
+ */
+public interface ObservadorVencimientos {
+
+	/**
+	 * Se invoca cuando faltan pocos días para la fecha de fin estimada del proyecto.
+	 * @param numero Número del proyecto.
+	 * @param fechaFinEstimado Fecha de fin estimada del proyecto.
+	 */
+	default void proximoAVencer(int numero, LocalDate fechaFinEstimado) {
+	}
+	
+	/**
+	 * Se invoca cuando el proyecto pasó su fecha de fin estimada sin finalizar.
+	 * @param numero Número del proyecto.
+	 * @param fechaFinEstimado Fecha de fin estimada del proyecto.
+	 */
+	void vencido(int numero, LocalDate fechaFinEstimado);
+}
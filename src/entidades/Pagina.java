@@ -0,0 +1,61 @@
+package entidades;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Una página de un listado ordenado, con el cursor para pedir la siguiente.
+ * El cursor es opaco: solo sirve para volver a pasarlo a la misma consulta.
+ */
+public class Pagina<T> {
+	private static final String PREFIJO = "hs:";
+	
+	private List<T> elementos;
+	private String siguiente;
+	
+	Pagina(List<T> elementos, String siguiente) {
+		this.elementos = elementos;
+		this.siguiente = siguiente;
+	}
+	
+	public List<T> getElementos() {
+		return Collections.unmodifiableList(elementos);
+	}
+	// cursor de la página siguiente, o null si esta es la última
+	public String getSiguiente() {
+		return siguiente;
+	}
+	public boolean hayMas() {
+		return siguiente != null;
+	}
+	
+	// el cursor guarda la última clave entregada (número de proyecto o legajo)
+	static String cursorDe(int ultimaClave) {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((PREFIJO + ultimaClave).getBytes(StandardCharsets.UTF_8));
+	}
+	
+	// clave desde la que sigue la página; 0 para la primera
+	static int claveDe(String cursor) {
+		if (cursor == null) {
+			return 0;
+		}
+		try {
+			String texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+			if (texto.startsWith(PREFIJO)) {
+				return Integer.parseInt(texto.substring(PREFIJO.length()));
+			}
+		} catch (IllegalArgumentException e) {
+			// cae al error de abajo (NumberFormatException también es IllegalArgumentException)
+		}
+		throw new IllegalArgumentException("Cursor inválido");
+	}
+	
+	static void validarTamanio(int tamanio) {
+		if (tamanio <= 0) {
+			throw new IllegalArgumentException("El tamaño de página debe ser mayor a 0");
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package entidades;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Conjunto de empleados disponibles en orden FIFO.
+ * El que más tiempo lleva libre es el primero en ser elegido;
+ * elegir, sacar y agregar cuestan O(1) y listar cuesta O(disponibles).
+ * Cada empleado guarda su turno de entrada a la fila, así una instantánea puede
+ * reconstruir el orden sin escribir la fila entera.
+ */
+public class PoolEmpleados implements ObservadorEmpleado {
+	private Set<Empleado> disponibles;
+	private long ultimoTurno;
+	
+	public PoolEmpleados() {
+		this.disponibles = new LinkedHashSet<>();
+	}
+	
+	public synchronized void registrar(Empleado empleado) {
+		empleado.agregarObservador(this);
+		// uno restaurado ya trae su turno: se registran en orden de turno
+		if (empleado.getTurnoEnPool() > ultimoTurno) {
+			ultimoTurno = empleado.getTurnoEnPool();
+		}
+		if (empleado.estaDisponible()) {
+			if (empleado.getTurnoEnPool() == 0) {
+				empleado.setTurnoEnPool(++ultimoTurno);
+			}
+			disponibles.add(empleado);
+		}
+	}
+	
+	@Override
+	public synchronized void disponibilidadCambiada(Empleado empleado) {
+		if (empleado.estaDisponible()) {
+			if (disponibles.add(empleado)) {
+				empleado.setTurnoEnPool(++ultimoTurno);
+			}
+		} else {
+			disponibles.remove(empleado);
+		}
+	}
+	
+	// devuelve el primero en la fila sin sacarlo, o null si no hay nadie libre
+	public synchronized Empleado primero() {
+		Iterator<Empleado> it = disponibles.iterator();
+		return it.hasNext() ? it.next() : null;
+	}
+	
+	/**
+	 * Saca al primero de la fila, o devuelve null si no hay nadie libre.
+	 * Quien lo saca lo toma después con intentarAsignar, fuera de este lock: si
+	 * otro hilo lo ganó, ya no está en la fila y el próximo intento sigue con otro.
+	 */
+	synchronized Empleado sacarPrimero() {
+		Iterator<Empleado> it = disponibles.iterator();
+		if (!it.hasNext()) {
+			return null;
+		}
+		Empleado primero = it.next();
+		it.remove();
+		return primero;
+	}
+	
+	public synchronized Object[] legajos() {
+		Object[] legajos = new Object[disponibles.size()];
+		int i = 0;
+		for (Empleado e : disponibles) {
+			legajos[i++] = e.getLegajo();
+		}
+		return legajos;
+	}
+	
+	public synchronized int cantidad() {
+		return disponibles.size();
+	}
+}
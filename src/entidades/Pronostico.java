@@ -0,0 +1,34 @@
+package entidades;
+
+import java.time.LocalDate;
+
+/**
+ * Fecha de fin y costo esperados de un proyecto, contando los retrasos
+ * registrados y las tareas que todavía no terminaron.
+ */
+public class Pronostico {
+	private int numeroProyecto;
+	private LocalDate fechaFin;
+	private double costo;
+	
+	Pronostico(int numeroProyecto, LocalDate fechaFin, double costo) {
+		this.numeroProyecto = numeroProyecto;
+		this.fechaFin = fechaFin;
+		this.costo = costo;
+	}
+	
+	public int getNumeroProyecto() {
+		return numeroProyecto;
+	}
+	public LocalDate getFechaFin() {
+		return fechaFin;
+	}
+	public double getCosto() {
+		return costo;
+	}
+	
+	@Override
+	public String toString() {
+		return "Proyecto " + numeroProyecto + ": fin " + fechaFin + ", costo " + costo;
+	}
+}
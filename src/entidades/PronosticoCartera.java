@@ -0,0 +1,119 @@
+package entidades;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Pronóstico de los proyectos sin finalizar de toda la cartera. Cada proyecto
+ * aporta su fecha de fin pronosticada, el costo de lo que ya tiene responsable
+ * y los días que todavía no lo tienen; los totales se corrigen con la diferencia
+ * cada vez que el proyecto avisa un cambio, sin recorrer sus tareas.
+ *
+ * Las tareas sin responsable se cuentan al costo diario promedio de los empleados.
+ */
+public class PronosticoCartera implements ObservadorProyecto {
+	private Map<Integer, Aporte> aportes;
+	private NavigableMap<LocalDate, NavigableSet<Integer>> porFin;
+	private double costoComprometido; // con el recargo de cada proyecto
+	private double diasSinAsignar; // también con el recargo de cada proyecto
+	private double costoDiarioEmpleados;
+	private int cantidadEmpleados;
+	
+	public PronosticoCartera() {
+		this.aportes = new HashMap<>();
+		this.porFin = new TreeMap<>();
+	}
+	
+	public synchronized void agregar(Proyecto proyecto) {
+		actualizar(proyecto);
+	}
+	
+	public synchronized void agregarEmpleado(Empleado empleado) {
+		costoDiarioEmpleados += empleado.calcularCostoDiario();
+		cantidadEmpleados++;
+	}
+	
+	@Override
+	public synchronized void estadoCambiado(Proyecto proyecto, String estadoAnterior) {
+		actualizar(proyecto);
+	}
+	
+	@Override
+	public synchronized void proyectoModificado(Proyecto proyecto) {
+		actualizar(proyecto);
+	}
+	
+	public synchronized double costoDiarioReferencia() {
+		return cantidadEmpleados > 0 ? costoDiarioEmpleados / cantidadEmpleados : 0;
+	}
+	
+	public synchronized Pronostico pronostico(Proyecto proyecto) {
+		return new Pronostico(proyecto.getNumeroProyecto(), proyecto.getFechaFinPronosticada(),
+				proyecto.getCostoPronosticado(costoDiarioReferencia()));
+	}
+	
+	// suma de los costos pronosticados de los proyectos sin finalizar
+	public synchronized double costoTotal() {
+		return costoComprometido + diasSinAsignar * costoDiarioReferencia();
+	}
+	
+	// la última fecha de fin pronosticada, o null si no hay proyectos sin finalizar
+	public synchronized LocalDate finMasTardio() {
+		return porFin.isEmpty() ? null : porFin.lastKey();
+	}
+	
+	// pronósticos de los proyectos sin finalizar, del que termina antes al que termina después
+	public synchronized List<Pronostico> todos() {
+		double referencia = costoDiarioReferencia();
+		List<Pronostico> resultado = new ArrayList<>(aportes.size());
+		for (NavigableSet<Integer> numeros : porFin.values()) {
+			for (Integer numero : numeros) {
+				Aporte a = aportes.get(numero);
+				resultado.add(new Pronostico(numero, a.fechaFin, a.comprometido + a.diasSinAsignar * referencia));
+			}
+		}
+		return resultado;
+	}
+	
+	private void actualizar(Proyecto proyecto) {
+		int numero = proyecto.getNumeroProyecto();
+		Aporte anterior = aportes.remove(numero);
+		if (anterior != null) {
+			costoComprometido -= anterior.comprometido;
+			diasSinAsignar -= anterior.diasSinAsignar;
+			NavigableSet<Integer> numeros = porFin.get(anterior.fechaFin);
+			numeros.remove(numero);
+			if (numeros.isEmpty()) {
+				porFin.remove(anterior.fechaFin);
+			}
+		}
+		if (proyecto.estaFinalizado()) {
+			return;
+		}
+		Aporte nuevo = new Aporte(proyecto.getFechaFinPronosticada(), proyecto.getCostoProyecto(),
+				proyecto.getDiasSinAsignar() * proyecto.factorRecargo());
+		aportes.put(numero, nuevo);
+		costoComprometido += nuevo.comprometido;
+		diasSinAsignar += nuevo.diasSinAsignar;
+		porFin.computeIfAbsent(nuevo.fechaFin, f -> new TreeSet<>()).add(numero);
+	}
+	
+	private static class Aporte {
+		final LocalDate fechaFin;
+		final double comprometido;
+		final double diasSinAsignar;
+		
+		Aporte(LocalDate fechaFin, double comprometido, double diasSinAsignar) {
+			this.fechaFin = fechaFin;
+			this.comprometido = comprometido;
+			this.diasSinAsignar = diasSinAsignar;
+		}
+	}
+}
@@ -22,8 +22,12 @@ public class Proyecto {
 	private LocalDate fechaFinReal;
 	private String estado;
 	private List<Empleado> historialEmpleados;
-	private double costoCache;
-	private boolean costoCalculado;
+	private double costoTareas; // suma del costo de las tareas, se actualiza por diferencias
+	private int tareasConRetraso;
+	private int diasSinAsignar; // días, con retraso, de las tareas sin terminar y sin responsable
+	private List<ObservadorProyecto> observadores;
+	private int diasEstimados; // suma de los días de las tareas, para no recorrerlas en cada alta
+	private Cronograma cronograma;
 	
 	public Proyecto(int numeroProyecto, Cliente cliente, String direccion, LocalDate fechaInicio, Map<String, Tarea> tareas) {
 		if(numeroProyecto <= 0) {
@@ -46,10 +50,42 @@ public class Proyecto {
 		this.direccion = direccion;
 		this.tareas = new HashMap<>(tareas);
 		this.fechaInicio = fechaInicio;
-		this.fechaFinEstimado = fechaInicio.plusDays(calcularDiasEstimados());
 		this.fechaFinReal = null;
 		this.estado = Estado.pendiente;
 		this.historialEmpleados = new ArrayList<>();
+		this.observadores = new ArrayList<>();
+		armarCronograma();
+		this.fechaFinEstimado = fechaInicio.plusDays(diasEstimados);
+		for(Tarea t : this.tareas.values()) {
+			t.vincular(this);
+		}
+	}
+	
+	// arma un proyecto con el estado guardado en una instantánea, sin repetir las validaciones
+	Proyecto(int numeroProyecto, Cliente cliente, String direccion, LocalDate fechaInicio, LocalDate fechaFinEstimado,
+			LocalDate fechaFinReal, String estado, Map<String, Tarea> tareas, List<Empleado> historialEmpleados) {
+		this.numeroProyecto = numeroProyecto;
+		this.cliente = cliente;
+		this.direccion = direccion;
+		this.tareas = tareas;
+		this.fechaInicio = fechaInicio;
+		this.fechaFinEstimado = fechaFinEstimado;
+		this.fechaFinReal = fechaFinReal;
+		this.estado = estado;
+		this.historialEmpleados = historialEmpleados;
+		this.observadores = new ArrayList<>();
+		armarCronograma();
+		for(Tarea t : tareas.values()) {
+			t.vincular(this);
+		}
+	}
+	
+	private void armarCronograma() {
+		cronograma = new Cronograma();
+		for(Tarea t : tareas.values()) {
+			diasEstimados += t.getDiasNecesarios();
+			cronograma.agregar(t);
+		}
 	}
 	
 	public int getNumeroProyecto() {
@@ -80,12 +116,74 @@ public class Proyecto {
 		return Collections.unmodifiableList(historialEmpleados);
 	}
 	
+	public void agregarObservador(ObservadorProyecto observador) {
+		if(observador == null) {
+			throw new IllegalArgumentException("El observador no puede ser nulo");
+		}
+		observadores.add(observador);
+	}
+	
 	public double getCostoProyecto() {
-		if(!costoCalculado) {
-			costoCache = calcularCostoTareas();
-			costoCalculado = true;
+		return costoTareas * factorRecargo();
+	}
+	
+	public int getTareasConRetraso() {
+		return tareasConRetraso;
+	}
+	
+	public int getDiasSinAsignar() {
+		return diasSinAsignar;
+	}
+	
+	// PRONÓSTICO
+	
+	/**
+	 * Fecha de fin contando los retrasos registrados: la planificada según el
+	 * cronograma, que ya los incluye. Si el proyecto ya finalizó, la fecha real.
+	 */
+	public LocalDate getFechaFinPronosticada() {
+		if(estaFinalizado() && fechaFinReal != null) {
+			return fechaFinReal;
+		}
+		return getFechaFinPlanificada();
+	}
+	
+	/**
+	 * Costo final esperado: el de las tareas terminadas o con responsable, más los
+	 * días de las tareas que todavía no tienen uno a un costo diario de referencia.
+	 * @param costoDiarioReferencia Costo por día supuesto para las tareas sin responsable.
+	 */
+	public double getCostoPronosticado(double costoDiarioReferencia) {
+		return (costoTareas + diasSinAsignar * costoDiarioReferencia) * factorRecargo();
+	}
+	
+	double factorRecargo() {
+		double recargo = tareasConRetraso > 0 ? 0.25 : 0.35;
+		return 1 + recargo;
+	}
+	
+	// cada tarea informa cuánto cambiaron su costo, si tiene retraso y sus días sin responsable
+	void registrarCambioCosto(double deltaCosto, int deltaTareasConRetraso, int deltaDiasSinAsignar) {
+		double costoAnterior = getCostoProyecto();
+		costoTareas += deltaCosto;
+		tareasConRetraso += deltaTareasConRetraso;
+		diasSinAsignar += deltaDiasSinAsignar;
+		for (ObservadorProyecto o : observadores) {
+			o.costoCambiado(this, costoAnterior);
+		}
+	}
+	
+	void notificarCambioTarea(Tarea tarea) {
+		for (ObservadorProyecto o : observadores) {
+			o.tareaCambiada(this, tarea);
+		}
+	}
+	
+	// avisa que el proyecto cambió; las tareas lo llaman después de cada cambio propio
+	void notificarModificacion() {
+		for (ObservadorProyecto o : observadores) {
+			o.proyectoModificado(this);
 		}
-		return costoCache;
 	}
 	
 	public void agregarTarea(Tarea tarea) {
@@ -96,10 +194,19 @@ public class Proyecto {
 			throw new IllegalArgumentException("Ya existe una tarea con ese título en el proyecto");
 		}
 		tareas.put(tarea.getClave(), tarea);
-		fechaFinEstimado = fechaInicio.plusDays(calcularDiasEstimados());
-		costoCalculado = false; // invalido cache
+		cronograma.agregar(tarea);
+		diasEstimados += tarea.getDiasNecesarios();
+		LocalDate finAnterior = fechaFinEstimado;
+		fechaFinEstimado = fechaInicio.plusDays(diasEstimados);
+		tarea.vincular(this);
+		if (!fechaFinEstimado.equals(finAnterior)) {
+			for (ObservadorProyecto o : observadores) {
+				o.fechaFinCambiada(this, finAnterior);
+			}
+		}
 	}
 	
+	// recalcula el costo recorriendo todas las tareas, sirve para verificar el acumulado
 	public double calcularCostoTareas() {
 	    double total = 0;
 	    boolean hayRetraso = false;
@@ -126,6 +233,7 @@ public class Proyecto {
 	
 	public void actualizarFechaFinReal() {
 		this.fechaFinReal = LocalDate.now();
+		notificarModificacion();
 	}
 	
 	public void marcarComoEnCurso() {
@@ -134,30 +242,38 @@ public class Proyecto {
 			boolean tieneAsignadas = tareas.values().stream().anyMatch(t -> t.getEmpleadoAsignado() != null);
 			//si ya hay alguna tarea asignada, lo ponemos como ACTIVO
 			if (tieneAsignadas) {
-				estado = Estado.activo;
+				cambiarEstado(Estado.activo);
 			}
 		}
 	}
 
 	
 	public void marcarComoFinalizado() {
+		marcarComoFinalizado(LocalDate.now());
+	}
+	
+	// la fecha real de fin es la informada, así reproducir el registro da el mismo resultado
+	public void marcarComoFinalizado(LocalDate fechaFin) {
 	    if(estado.equals(Estado.finalizado)) {
 	        throw new IllegalStateException("El proyecto ya está finalizado");
 	    }
 	    
 	    // autotermina todas las tareas antes de finalizar el proyecto
 	    for (Tarea tarea : tareas.values()) {
-	        if (!tarea.estaTerminada()) {
-	            tarea.marcarComoTerminada();
-	            Empleado emp = tarea.getEmpleadoAsignado();
-	            if(emp != null && !historialEmpleados.contains(emp)) {
-	                historialEmpleados.add(emp);
-	            }
-	        }
+	        marcarTareaTerminada(tarea);
 	    }
 	    
-	    actualizarFechaFinReal();
-	    estado = Estado.finalizado;
+	    this.fechaFinReal = fechaFin;
+	    cambiarEstado(Estado.finalizado);
+	}
+	
+	// cambia el estado y avisa a los índices que lo siguen
+	private void cambiarEstado(String nuevoEstado) {
+		String anterior = estado;
+		estado = nuevoEstado;
+		for (ObservadorProyecto o : observadores) {
+			o.estadoCambiado(this, anterior);
+		}
 	}
 	
 	public void marcarTareaTerminada(String tituloTarea) {
@@ -165,28 +281,77 @@ public class Proyecto {
 			throw new IllegalArgumentException("El título de la tarea no puede ser vacío");
 		}
 		
-		Tarea tarea = tareas.get(tituloTarea);
+		Tarea tarea = tareas.get(tituloTarea.toLowerCase().trim());
 		if(tarea == null) {
 			throw new IllegalArgumentException("No existe una tarea con el título: " + tituloTarea);
 		}
-		
+		marcarTareaTerminada(tarea);
+	}
+	
+	// la tarea ya fue buscada por quien llama
+	public void marcarTareaTerminada(Tarea tarea) {
 		if(!tarea.estaTerminada()) {
-			tarea.marcarComoTerminada();
+			// el responsable pasa al historial antes de terminar, porque terminar lo libera
+			// (y avisa la modificación, que así ya incluye el historial)
 			Empleado emp = tarea.getEmpleadoAsignado();
 			if(emp != null && !historialEmpleados.contains(emp)) {
 				historialEmpleados.add(emp);
 			}
+			tarea.marcarComoTerminada();
 		}
-		
-		costoCalculado = false;
 	}
 	
-	private int calcularDiasEstimados() {
-		int total = 0;
-		for(Tarea t : tareas.values()) {
-			total += t.getDiasNecesarios();
+	// CRONOGRAMA
+	
+	/**
+	 * Declara que la tarea no puede empezar hasta que termine la predecesora.
+	 * @throws IllegalArgumentException si la dependencia ya existe o formaría un ciclo.
+	 */
+	public void agregarDependencia(Tarea tarea, Tarea predecesora) {
+		if(tarea == null || predecesora == null) {
+			throw new IllegalArgumentException("Las tareas no pueden ser nulas");
 		}
-		return total;
+		cronograma.agregarDependencia(tarea, predecesora);
+		notificarModificacion();
+	}
+	
+	void restaurarDependencia(Tarea tarea, Tarea predecesora) {
+		cronograma.restaurarDependencia(tarea, predecesora);
+	}
+	
+	void recalcularCronograma() {
+		cronograma.recalcularTodo();
+	}
+	
+	// la tarea cambió de duración, por ejemplo por un retraso
+	void duracionCambiada(Tarea tarea) {
+		cronograma.recalcularDesde(tarea);
+	}
+	
+	/**
+	 * Fecha en que termina la última tarea respetando las dependencias y los retrasos,
+	 * con las tareas sin dependencias en paralelo. A diferencia de getFechaFinEstimado,
+	 * que suma los días de todas las tareas.
+	 */
+	public LocalDate getFechaFinPlanificada() {
+		return fechaInicio.plusDays(cronograma.duracionTotal());
+	}
+	
+	public LocalDate getInicioTemprano(Tarea tarea) {
+		return fechaInicio.plusDays(cronograma.inicioTemprano(tarea));
+	}
+	
+	public LocalDate getInicioTardio(Tarea tarea) {
+		return fechaInicio.plusDays(cronograma.inicioTardio(tarea));
+	}
+	
+	public List<Tarea> getPredecesoras(Tarea tarea) {
+		return cronograma.predecesoras(tarea);
+	}
+	
+	// tareas sin holgura: si cualquiera se atrasa, se atrasa el proyecto
+	public List<Tarea> getCaminoCritico() {
+		return cronograma.caminoCritico();
 	}
 	
 	public boolean estaFinalizado() {
@@ -0,0 +1,237 @@
+package entidades;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Puntos de control de un HomeSolution: una instantánea completa y una cadena
+ * de deltas con solo lo que cambió entre uno y otro, así el costo de cada
+ * punto de control depende de cuánto se modificó y no del tamaño total.
+ *
+ * Los deltas se guardan junto a la base como "base.delta.1", "base.delta.2", etc.,
+ * numerados siempre hacia adelante, y la base anota hasta cuál incluye. Cada vez que
+ * se acumulan deltasPorCompactacion deltas, se arma una base nueva en segundo plano a
+ * partir de los archivos (la base y sus deltas, como restaurar), sin tocar el sistema
+ * en vivo ni frenar los puntos de control que siguen; se reemplaza la base y recién
+ * después se borran los deltas que incluye. Un delta de otra cadena, o uno que la base
+ * ya incluye (por ejemplo si se cortó antes de borrarlos), se ignora.
+ *
+ * Cada punto de control lee el estado con el sistema pausado según la Pausa indicada:
+ * con varios hilos escribiendo hay que pasar la del envoltorio
+ * (HomeSolutionPersistente::conSistemaQuieto o HomeSolutionConcurrente::conSistemaQuieto).
+ * Si una compactación falla, el error queda en getErrorCompactacion y close lo relanza.
+ */
+public class PuntosDeControl implements Closeable {
+	/**
+	 * Corre la lectura sin que nadie modifique el sistema mientras tanto.
+	 */
+	public interface Pausa {
+		// para un sistema que se usa desde un solo hilo
+		Pausa ninguna = Lectura::leer;
+
+		void durante(Lectura lectura) throws IOException;
+	}
+
+	public interface Lectura {
+		void leer() throws IOException;
+	}
+
+	private final HomeSolution sistema;
+	private final Path base;
+	private final int deltasPorCompactacion;
+	private final Pausa pausa;
+	private final ExecutorService compactador;
+	private final long idCadena;
+	private int secuencia; // último delta escrito
+	private int incluidosEnBase; // último delta que la base ya incluye
+	private boolean compactando;
+	private Exception errorCompactacion;
+
+	/**
+	 * Igual que el constructor con Pausa, para un sistema que se usa desde un solo hilo.
+	 */
+	public PuntosDeControl(HomeSolution sistema, Path base, int deltasPorCompactacion) throws IOException {
+		this(sistema, base, deltasPorCompactacion, Pausa.ninguna);
+	}
+
+	/**
+	 * Empieza una cadena nueva escribiendo una instantánea completa del sistema.
+	 * @param sistema Sistema a seguir.
+	 * @param base Archivo de la instantánea completa.
+	 * @param deltasPorCompactacion Cantidad de deltas que disparan una compactación.
+	 * @param pausa Cómo leer el sistema sin que otro hilo lo modifique.
+	 */
+	public PuntosDeControl(HomeSolution sistema, Path base, int deltasPorCompactacion, Pausa pausa) throws IOException {
+		if (sistema == null || base == null || pausa == null) {
+			throw new IllegalArgumentException("El sistema, el archivo y la pausa no pueden ser nulos");
+		}
+		if (deltasPorCompactacion <= 0) {
+			throw new IllegalArgumentException("La cantidad de deltas por compactación debe ser mayor a 0");
+		}
+		this.sistema = sistema;
+		this.base = base;
+		this.deltasPorCompactacion = deltasPorCompactacion;
+		this.pausa = pausa;
+		this.compactador = Executors.newSingleThreadExecutor(r -> {
+			Thread hilo = new Thread(r, "compactacion-puntos-de-control");
+			hilo.setDaemon(true);
+			return hilo;
+		});
+		long id;
+		do {
+			id = ThreadLocalRandom.current().nextLong();
+		} while (id == 0); // 0 es una instantánea sin cadena
+		this.idCadena = id;
+		completo();
+		// los de una cadena anterior ya no se leen, pero no se dejan tirados
+		for (int i = 1; Files.exists(delta(base, i)); i++) {
+			Files.deleteIfExists(delta(base, i));
+		}
+	}
+
+	/**
+	 * Escribe una instantánea completa del sistema y descarta los deltas anteriores.
+	 */
+	public synchronized void completo() throws IOException {
+		pausa.durante(() -> {
+			// se toman antes de leer el estado: lo que cambie mientras tanto queda para el próximo delta
+			Set<Integer> proyectos = sistema.getCambios().tomarProyectos();
+			Set<Integer> empleados = sistema.getCambios().tomarEmpleados();
+			try {
+				Instantanea.guardar(sistema, base, idCadena, secuencia);
+			} catch (IOException | RuntimeException e) {
+				sistema.getCambios().devolver(proyectos, empleados);
+				throw e;
+			}
+		});
+		borrarDeltas(incluidosEnBase, secuencia);
+		incluidosEnBase = secuencia;
+	}
+
+	/**
+	 * Escribe un delta con los proyectos y empleados modificados desde el último
+	 * punto de control. Si ya hay suficientes deltas, programa una compactación.
+	 */
+	public synchronized void incremental() throws IOException {
+		pausa.durante(() -> {
+			Set<Integer> proyectos = sistema.getCambios().tomarProyectos();
+			Set<Integer> empleados = sistema.getCambios().tomarEmpleados();
+			try {
+				DeltaInstantanea.escribir(sistema, delta(base, secuencia + 1), idCadena, secuencia + 1, empleados, proyectos);
+			} catch (IOException | RuntimeException e) {
+				sistema.getCambios().devolver(proyectos, empleados);
+				throw e;
+			}
+		});
+		secuencia++;
+		if (cantidadDeltas() >= deltasPorCompactacion && !compactando) {
+			compactando = true;
+			compactador.execute(this::compactar);
+		}
+	}
+
+	// deltas escritos que la base todavía no incluye
+	public synchronized int cantidadDeltas() {
+		return secuencia - incluidosEnBase;
+	}
+
+	// el error de la última compactación en segundo plano, o null si terminó bien
+	public synchronized Exception getErrorCompactacion() {
+		return errorCompactacion;
+	}
+
+	/**
+	 * Reconstruye el sistema a partir de la instantánea base y de todos los deltas
+	 * válidos que le siguen.
+	 * @param base Archivo de la instantánea completa.
+	 */
+	public static HomeSolution restaurar(Path base) throws IOException {
+		return restaurar(base, Integer.MAX_VALUE);
+	}
+
+	// la base con sus deltas hasta el indicado; si alguno de esos falta o está dañado, falla
+	private static HomeSolution restaurar(Path base, int hasta) throws IOException {
+		Tupla<Long, Integer> cadena = Instantanea.cadena(base);
+		DeltaInstantanea acumulado = new DeltaInstantanea();
+		int secuencia = cadena.getValor2() + 1;
+		while (secuencia <= hasta && acumulado.leer(delta(base, secuencia), cadena.getValor1(), secuencia)) {
+			secuencia++;
+		}
+		if (hasta != Integer.MAX_VALUE && secuencia <= hasta) {
+			throw new IOException("Falta o está dañado el delta " + secuencia + " de " + base);
+		}
+		return Instantanea.restaurar(base, acumulado);
+	}
+
+	/**
+	 * Espera a que termine la compactación en curso, si hay una.
+	 * @throws IOException Si la última compactación falló; los deltas siguen siendo válidos.
+	 */
+	@Override
+	public void close() throws IOException {
+		compactador.shutdown();
+		try {
+			compactador.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		Exception error = getErrorCompactacion();
+		if (error != null) {
+			throw new IOException("Falló la compactación de " + base, error);
+		}
+	}
+
+	// arma la base nueva desde los archivos, sin el lock: mientras tanto se siguen escribiendo
+	// deltas con números más altos, que la base nueva no incluye y siguen valiendo.
+	// Si falla, la cadena actual sigue completa y se vuelve a intentar con el próximo delta
+	private void compactar() {
+		int desde;
+		int hasta;
+		synchronized (this) {
+			desde = incluidosEnBase;
+			hasta = secuencia;
+		}
+		Path compactada = base.resolveSibling(base.getFileName() + ".compactada");
+		Exception error = null;
+		try {
+			Instantanea.guardar(restaurar(base, hasta), compactada, idCadena, hasta);
+			synchronized (this) {
+				// si mientras tanto se escribió una base completa, esta ya quedó vieja
+				if (incluidosEnBase == desde) {
+					Instantanea.reemplazar(compactada, base);
+					incluidosEnBase = hasta;
+				}
+			}
+			borrarDeltas(desde, hasta);
+		} catch (IOException | RuntimeException e) {
+			error = e;
+		}
+		synchronized (this) {
+			// una falla por una base completa escrita en el medio no es un error
+			errorCompactacion = incluidosEnBase == desde ? error : null;
+			compactando = false;
+		}
+		try {
+			Files.deleteIfExists(compactada);
+		} catch (IOException e) {
+			// queda un archivo de más, que la próxima compactación pisa
+		}
+	}
+
+	private void borrarDeltas(int desde, int hasta) throws IOException {
+		for (int i = desde + 1; i <= hasta; i++) {
+			Files.deleteIfExists(delta(base, i));
+		}
+	}
+
+	static Path delta(Path base, int secuencia) {
+		return base.resolveSibling(base.getFileName() + ".delta." + secuencia);
+	}
+}
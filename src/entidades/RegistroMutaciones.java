@@ -0,0 +1,219 @@
+package entidades;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Registro de escritura anticipada (write-ahead log) de las mutaciones de HomeSolution.
+ *
+ * Formato: cabecera "HSWL" + versión, y después un registro por mutación con
+ * [largo][tipo][datos][crc32]. Si el último registro quedó cortado por una caída,
+ * se descarta al abrir.
+ *
+ * Las escrituras van al FileChannel en orden y el fsync se comparte (group commit):
+ * quien llama a sincronizar espera a que un único force cubra su escritura y la de
+ * todos los que escribieron antes que él.
+ */
+public class RegistroMutaciones implements AutoCloseable {
+	private static final int MAGICO = 0x4853574C; // "HSWL"
+	private static final int VERSION = 1;
+	private static final int CABECERA = 8;
+	
+	private FileChannel canal;
+	private volatile long escritoHasta;
+	private long sincronizadoHasta;
+	private Object lockSincronizacion;
+	
+	private RegistroMutaciones(FileChannel canal, long fin) {
+		this.canal = canal;
+		this.escritoHasta = fin;
+		this.sincronizadoHasta = fin;
+		this.lockSincronizacion = new Object();
+	}
+	
+	/**
+	 * Abre el registro para seguir escribiendo al final. Si no existe lo crea.
+	 * @param archivo Archivo del registro.
+	 * @throws IOException Si no se puede abrir o no es un registro válido.
+	 */
+	public static RegistroMutaciones abrir(Path archivo) throws IOException {
+		return abrir(archivo, Files.exists(archivo) ? recorrer(archivo, m -> {}) : 0);
+	}
+	
+	/**
+	 * Reproduce el registro sobre el sistema y lo abre para seguir escribiendo, leyendo el
+	 * archivo una sola vez: la reproducción ya sabe dónde termina el último registro válido.
+	 * @param enParalelo true para reproducir con reproducirEnParalelo.
+	 */
+	static RegistroMutaciones reproducirYAbrir(Path archivo, HomeSolution sistema, boolean enParalelo)
+			throws IOException {
+		long fin = 0;
+		if (Files.exists(archivo)) {
+			fin = enParalelo
+					? ReproduccionParalela.reproducirHastaFin(archivo, sistema, ForkJoinPool.commonPool())
+					: recorrer(archivo, m -> m.reproducir(sistema));
+		}
+		return abrir(archivo, fin);
+	}
+	
+	// fin: dónde termina el último registro válido, 0 si el archivo no existe o está vacío
+	private static RegistroMutaciones abrir(Path archivo, long fin) throws IOException {
+		FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		if (fin == 0) {
+			ByteBuffer cabecera = ByteBuffer.allocate(CABECERA).putInt(MAGICO).putInt(VERSION);
+			cabecera.flip();
+			canal.write(cabecera, 0);
+			canal.force(true);
+			fin = CABECERA;
+		}
+		canal.truncate(fin); // descarta un registro final incompleto
+		canal.position(fin);
+		return new RegistroMutaciones(canal, fin);
+	}
+	
+	/**
+	 * Escribe la mutación al final del registro, sin esperar el fsync.
+	 * @return Posición hasta la que hay que sincronizar para que quede durable.
+	 */
+	public synchronized long agregar(Mutacion mutacion) throws IOException {
+		byte[] datos = mutacion.getDatos();
+		CRC32 crc = new CRC32();
+		crc.update(mutacion.getTipo());
+		crc.update(datos);
+		ByteBuffer buffer = ByteBuffer.allocate(4 + 1 + datos.length + 4);
+		buffer.putInt(1 + datos.length).put(mutacion.getTipo()).put(datos).putInt((int) crc.getValue());
+		buffer.flip();
+		long inicio = escritoHasta;
+		try {
+			while (buffer.hasRemaining()) {
+				canal.write(buffer);
+			}
+		} catch (IOException e) {
+			// no dejo media mutación al final: la próxima se escribiría detrás de ella
+			try {
+				descartarDesde(inicio);
+			} catch (IOException otra) {
+				e.addSuppressed(otra);
+			}
+			throw e;
+		}
+		escritoHasta = canal.position();
+		return escritoHasta;
+	}
+	
+	// fin de lo escrito hasta ahora (sincronizado o no)
+	long getEscritoHasta() {
+		return escritoHasta;
+	}
+	
+	/**
+	 * Descarta lo escrito desde la posición indicada, que tiene que ser el final de una
+	 * mutación anterior. HomeSolutionPersistente lo usa cuando el sistema rechaza una
+	 * mutación que ya había escrito.
+	 */
+	synchronized void descartarDesde(long posicion) throws IOException {
+		synchronized (lockSincronizacion) {
+			canal.truncate(posicion);
+			canal.position(posicion);
+			escritoHasta = posicion;
+			sincronizadoHasta = Math.min(sincronizadoHasta, posicion);
+		}
+	}
+	
+	/**
+	 * Espera a que todo lo escrito hasta la posición indicada esté en disco.
+	 * Un solo force cubre a todos los que escribieron mientras se esperaba el anterior.
+	 */
+	public void sincronizar(long posicion) throws IOException {
+		synchronized (lockSincronizacion) {
+			if (sincronizadoHasta >= posicion) {
+				return; // otro hilo ya hizo el fsync que nos cubre
+			}
+			long objetivo = escritoHasta;
+			canal.force(false);
+			sincronizadoHasta = objetivo;
+		}
+	}
+	
+	@Override
+	public void close() throws IOException {
+		sincronizar(escritoHasta);
+		canal.close();
+	}
+	
+	/**
+	 * Reproduce todas las mutaciones del registro sobre el sistema, en orden.
+	 * @return Cantidad de mutaciones reproducidas.
+	 */
+	public static long reproducir(Path archivo, HomeSolution sistema) throws IOException {
+		long[] cantidad = new long[1];
+		recorrer(archivo, m -> {
+			m.reproducir(sistema);
+			cantidad[0]++;
+		});
+		return cantidad[0];
+	}
+	
+	/**
+	 * Reproduce el registro en paralelo, un proyecto por secuencia, en el pool común
+	 * de fork-join. El resultado es el mismo que con reproducir.
+	 * @return Cantidad de mutaciones reproducidas.
+	 * @see ReproduccionParalela
+	 */
+	public static long reproducirEnParalelo(Path archivo, HomeSolution sistema) throws IOException {
+		return ReproduccionParalela.reproducir(archivo, sistema, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Lee el registro en orden y entrega cada mutación válida al consumidor.
+	 * Se detiene en el primer registro incompleto o con checksum inválido.
+	 * @return Posición donde termina el último registro válido (0 si el archivo está vacío).
+	 */
+	public static long recorrer(Path archivo, Consumer<Mutacion> consumidor) throws IOException {
+		try (InputStream entrada = new BufferedInputStream(Files.newInputStream(archivo));
+				DataInputStream in = new DataInputStream(entrada)) {
+			long tamanio = Files.size(archivo);
+			if (tamanio == 0) {
+				return 0;
+			}
+			if (in.readInt() != MAGICO || in.readInt() != VERSION) {
+				throw new IOException("El archivo no es un registro de mutaciones válido: " + archivo);
+			}
+			long posicion = CABECERA;
+			while (true) {
+				Mutacion mutacion;
+				int largo;
+				try {
+					largo = in.readInt();
+					if (largo <= 0 || posicion + 4 + largo + 4 > tamanio) break;
+					byte tipo = in.readByte();
+					byte[] datos = new byte[largo - 1];
+					in.readFully(datos);
+					int esperado = in.readInt();
+					CRC32 crc = new CRC32();
+					crc.update(tipo);
+					crc.update(datos);
+					if ((int) crc.getValue() != esperado) break;
+					mutacion = new Mutacion(tipo, datos);
+				} catch (EOFException e) {
+					break; // último registro cortado
+				}
+				consumidor.accept(mutacion);
+				posicion += 4 + largo + 4;
+			}
+			return posicion;
+		}
+	}
+}
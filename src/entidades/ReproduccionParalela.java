@@ -0,0 +1,218 @@
+package entidades;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Reproduce un registro de mutaciones en paralelo, separado por número de proyecto.
+ *
+ * Cada proyecto es una secuencia propia que respeta el orden del registro, y sus
+ * mutaciones se programan en tramos en un pool de fork-join. Lo que toca el estado
+ * compartido se encadena además en el orden global del registro:
+ * altas de empleados y proyectos (por los contadores), asignaciones y reasignaciones,
+ * finalizar una tarea que tenía responsable (lo libera) y finalizar un proyecto.
+ * Así los empleados se toman y se liberan en el mismo orden que la primera vez y la
+ * fila de disponibles queda igual. Las mutaciones en orden seguidas se juntan en un
+ * solo paso, para no pagar un salto entre hilos por cada una. Los retrasos y las tareas nuevas corren en paralelo:
+ * los retrasos de un empleado solo se suman, en cualquier orden dan lo mismo.
+ *
+ * Para saber si una tarea tenía responsable se sigue el registro mientras se lee; los
+ * proyectos que ya existían en el sistema (por ejemplo restaurados de una instantánea)
+ * se consultan la primera vez que aparecen, antes de programar algo sobre ellos.
+ */
+public class ReproduccionParalela {
+	private static final int SIN_PROYECTO = 0; // altas de empleados
+	private static final int TAMANIO_TRAMO = 64;
+	
+	private HomeSolution sistema;
+	private ForkJoinPool pool;
+	private Map<Integer, CompletableFuture<Void>> ultimaPorProyecto;
+	private Map<Integer, List<Mutacion>> tramos;
+	private CompletableFuture<Void> ultimaEnOrden;
+	private List<Mutacion> enOrden; // mutaciones en orden todavía sin programar
+	private Set<Integer> proyectosEnOrden;
+	private List<CompletableFuture<Void>> dependenciasEnOrden;
+	private Map<Integer, Set<String>> tareasConResponsable;
+	private int proximoProyecto;
+	
+	private ReproduccionParalela(HomeSolution sistema, ForkJoinPool pool) {
+		this.sistema = sistema;
+		this.pool = pool;
+		this.ultimaPorProyecto = new HashMap<>();
+		this.tramos = new HashMap<>();
+		this.ultimaEnOrden = CompletableFuture.completedFuture(null);
+		this.enOrden = new ArrayList<>();
+		this.proyectosEnOrden = new HashSet<>();
+		this.dependenciasEnOrden = new ArrayList<>();
+		this.tareasConResponsable = new HashMap<>();
+		this.proximoProyecto = sistema.getContadorProyectos();
+	}
+	
+	/**
+	 * Reproduce el registro sobre el sistema usando el pool indicado.
+	 * Las mutaciones que el sistema rechaza se saltean, como en RegistroMutaciones.reproducir;
+	 * ante cualquier otro error su proyecto se detiene y se relanza el primero.
+	 * @return Cantidad de mutaciones reproducidas.
+	 */
+	public static long reproducir(Path archivo, HomeSolution sistema, ForkJoinPool pool) throws IOException {
+		long[] cantidad = new long[1];
+		reproducir(archivo, sistema, pool, cantidad);
+		return cantidad[0];
+	}
+	
+	// igual, pero devuelve dónde termina el último registro válido, para abrirlo sin volver a leerlo
+	static long reproducirHastaFin(Path archivo, HomeSolution sistema, ForkJoinPool pool) throws IOException {
+		return reproducir(archivo, sistema, pool, new long[1]);
+	}
+	
+	private static long reproducir(Path archivo, HomeSolution sistema, ForkJoinPool pool, long[] cantidad)
+			throws IOException {
+		ReproduccionParalela reproduccion = new ReproduccionParalela(sistema, pool);
+		long fin = RegistroMutaciones.recorrer(archivo, m -> {
+			reproduccion.programar(m);
+			cantidad[0]++;
+		});
+		reproduccion.esperar();
+		return fin;
+	}
+	
+	private void programar(Mutacion mutacion) {
+		int proyecto = proyectoDe(mutacion);
+		if (vaEnOrden(mutacion, proyecto)) {
+			cerrarTramo(proyecto);
+			if (proyectosEnOrden.add(proyecto)) {
+				dependenciasEnOrden.add(anteriorDe(proyecto));
+			}
+			enOrden.add(mutacion);
+			if (enOrden.size() >= TAMANIO_TRAMO) {
+				cerrarEnOrden();
+			}
+			return;
+		}
+		if (proyectosEnOrden.contains(proyecto)) {
+			cerrarEnOrden(); // tiene que ir después de lo que el proyecto ya tiene en orden
+		}
+		List<Mutacion> tramo = tramos.computeIfAbsent(proyecto, k -> new ArrayList<>());
+		tramo.add(mutacion);
+		if (tramo.size() >= TAMANIO_TRAMO) {
+			cerrarTramo(proyecto);
+		}
+	}
+	
+	// programa las mutaciones acumuladas del proyecto detrás de la última suya
+	private void cerrarTramo(int proyecto) {
+		List<Mutacion> tramo = tramos.remove(proyecto);
+		if (tramo == null) {
+			return;
+		}
+		ultimaPorProyecto.put(proyecto, anteriorDe(proyecto).thenRunAsync(() -> aplicar(tramo), pool));
+	}
+	
+	// programa las mutaciones en orden acumuladas, detrás de las anteriores en orden
+	// y de lo último de cada proyecto que tocan
+	private void cerrarEnOrden() {
+		if (enOrden.isEmpty()) {
+			return;
+		}
+		List<Mutacion> lote = enOrden;
+		dependenciasEnOrden.add(ultimaEnOrden);
+		CompletableFuture<Void> paso = CompletableFuture
+				.allOf(dependenciasEnOrden.toArray(new CompletableFuture<?>[0]))
+				.thenRunAsync(() -> aplicar(lote), pool);
+		for (Integer proyecto : proyectosEnOrden) {
+			ultimaPorProyecto.put(proyecto, paso);
+		}
+		ultimaEnOrden = paso;
+		enOrden = new ArrayList<>();
+		proyectosEnOrden.clear();
+		dependenciasEnOrden.clear();
+	}
+	
+	private void aplicar(List<Mutacion> mutaciones) {
+		for (Mutacion m : mutaciones) {
+			m.reproducir(sistema);
+		}
+	}
+	
+	private void esperar() {
+		cerrarEnOrden();
+		for (Integer proyecto : new ArrayList<>(tramos.keySet())) {
+			cerrarTramo(proyecto);
+		}
+		List<CompletableFuture<Void>> pendientes = new ArrayList<>(ultimaPorProyecto.values());
+		pendientes.add(ultimaEnOrden);
+		try {
+			CompletableFuture.allOf(pendientes.toArray(new CompletableFuture<?>[0])).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw e;
+		}
+	}
+	
+	private CompletableFuture<Void> anteriorDe(int proyecto) {
+		return ultimaPorProyecto.getOrDefault(proyecto, CompletableFuture.completedFuture(null));
+	}
+	
+	// las altas de proyecto van a la secuencia del número que les va a tocar
+	private int proyectoDe(Mutacion mutacion) {
+		Integer numero = mutacion.getNumeroProyecto();
+		if (numero != null) {
+			return numero;
+		}
+		if (mutacion.getTipo() == Mutacion.REGISTRAR_PROYECTO) {
+			tareasConResponsable.put(proximoProyecto, new HashSet<>());
+			return proximoProyecto++;
+		}
+		return SIN_PROYECTO;
+	}
+	
+	// decide si la mutación toca estado compartido y sigue el responsable de cada tarea
+	private boolean vaEnOrden(Mutacion mutacion, int proyecto) {
+		switch (mutacion.getTipo()) {
+			case Mutacion.ASIGNAR:
+			case Mutacion.REASIGNAR:
+				conResponsable(proyecto).add(clave(mutacion.getTitulo()));
+				return true;
+			case Mutacion.FINALIZAR_TAREA:
+				return conResponsable(proyecto).remove(clave(mutacion.getTitulo()));
+			case Mutacion.FINALIZAR_PROYECTO:
+				conResponsable(proyecto).clear();
+				return true;
+			case Mutacion.REGISTRAR_RETRASO:
+			case Mutacion.AGREGAR_TAREA:
+			case Mutacion.AGREGAR_DEPENDENCIA:
+				return false;
+			default:
+				return true; // altas
+		}
+	}
+	
+	private Set<String> conResponsable(int numero) {
+		return tareasConResponsable.computeIfAbsent(numero, n -> {
+			// todavía no se programó nada sobre este proyecto, leerlo ahora es seguro
+			Set<String> asignadas = new HashSet<>();
+			Proyecto existente = sistema.buscarProyecto(n);
+			if (existente != null) {
+				for (Tarea t : existente.getTareas().values()) {
+					if (t.getEmpleadoAsignado() != null) asignadas.add(t.getClave());
+				}
+			}
+			return asignadas;
+		});
+	}
+	
+	private static String clave(String titulo) {
+		return titulo.toLowerCase().trim();
+	}
+}
@@ -0,0 +1,46 @@
+package entidades;
+
+/**
+ * Resultado de un comando ejecutado dentro de un lote: si se aplicó (y qué empleado
+ * quedó asignado, si correspondía) o, si falló, el mensaje de la excepción que lo impidió.
+ */
+public class ResultadoComando {
+	private Comando comando;
+	private boolean exitoso;
+	private String error;
+	private Integer legajoAsignado;
+	
+	private ResultadoComando(Comando comando, boolean exitoso, String error, Integer legajoAsignado) {
+		this.comando = comando;
+		this.exitoso = exitoso;
+		this.error = error;
+		this.legajoAsignado = legajoAsignado;
+	}
+	
+	public static ResultadoComando exitoso(Comando comando, Integer legajoAsignado) {
+		return new ResultadoComando(comando, true, null, legajoAsignado);
+	}
+	
+	public static ResultadoComando fallido(Comando comando, String error) {
+		return new ResultadoComando(comando, false, error, null);
+	}
+	
+	public Comando getComando() {
+		return comando;
+	}
+	public boolean esExitoso() {
+		return exitoso;
+	}
+	public String getError() {
+		return error;
+	}
+	// legajo que quedó en la tarea si el comando asignaba o reasignaba, si no null
+	public Integer getLegajoAsignado() {
+		return legajoAsignado;
+	}
+	
+	@Override
+	public String toString() {
+		return comando + (exitoso ? " OK" : " ERROR: " + error);
+	}
+}
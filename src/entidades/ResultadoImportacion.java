@@ -0,0 +1,42 @@
+package entidades;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resultado de una importación de proyectos: cuántos se registraron y, por cada
+ * fila rechazada, su número de línea y el motivo.
+ */
+public class ResultadoImportacion {
+	private int importados;
+	private List<Tupla<Integer, String>> errores;
+	
+	public ResultadoImportacion() {
+		this.errores = new ArrayList<>();
+	}
+	
+	void sumarImportado() {
+		importados++;
+	}
+	
+	void agregarError(int linea, String mensaje) {
+		errores.add(new Tupla<>(linea, mensaje));
+	}
+	
+	public int getImportados() {
+		return importados;
+	}
+	// (línea, motivo) de cada fila que no se pudo importar, en el orden del archivo
+	public List<Tupla<Integer, String>> getErrores() {
+		return Collections.unmodifiableList(errores);
+	}
+	public boolean tieneErrores() {
+		return !errores.isEmpty();
+	}
+	
+	@Override
+	public String toString() {
+		return "Importados: " + importados + ", con errores: " + errores.size();
+	}
+}
@@ -0,0 +1,223 @@
+package entidades;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Rueda jerárquica de vencimientos de proyectos, por día.
+ * Cada proyecto sin finalizar tiene dos avisos programados: uno diasDeAviso días
+ * antes de su fecha de fin estimada y otro el día siguiente a esa fecha. Un aviso
+ * baja de nivel a lo sumo NIVELES veces antes de dispararse, así que cada
+ * proyecto cuesta O(1) amortizado sin recorrer la cartera.
+ *
+ * El tiempo avanza solo con avanzarHasta; los avisos se entregan a los
+ * observadores fuera del lock, después de avanzar.
+ */
+public class RuedaVencimientos implements ObservadorProyecto {
+	private static final int BITS = 6;
+	private static final int RANURAS = 1 << BITS;
+	private static final int NIVELES = 4;
+	
+	private final List<Aviso>[][] ranuras;
+	private final List<Aviso> lejanos; // más allá del último nivel
+	private final List<Aviso> listos; // ya vencidos al programarlos
+	private final Map<Integer, Aviso[]> programados;
+	private final List<ObservadorVencimientos> observadores;
+	private final int diasDeAviso;
+	private long actual; // último día procesado, en epochDay
+	
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public RuedaVencimientos(LocalDate hoy, int diasDeAviso) {
+		if (hoy == null) {
+			throw new IllegalArgumentException("La fecha no puede ser nula");
+		}
+		if (diasDeAviso < 0) {
+			throw new IllegalArgumentException("Los días de aviso no pueden ser negativos");
+		}
+		this.ranuras = new List[NIVELES][RANURAS];
+		this.lejanos = new ArrayList<>();
+		this.listos = new ArrayList<>();
+		this.programados = new HashMap<>();
+		this.observadores = new CopyOnWriteArrayList<>();
+		this.diasDeAviso = diasDeAviso;
+		this.actual = hoy.toEpochDay();
+	}
+	
+	public void agregarObservador(ObservadorVencimientos observador) {
+		if (observador == null) {
+			throw new IllegalArgumentException("El observador no puede ser nulo");
+		}
+		observadores.add(observador);
+	}
+	
+	public void agregar(Proyecto proyecto) {
+		programar(proyecto.getNumeroProyecto(), proyecto.getEstado(), proyecto.getFechaFinEstimado());
+	}
+	
+	// para proyectos que todavía no se cargaron de una instantánea
+	public void agregar(CabeceraProyecto cabecera) {
+		programar(cabecera.getNumero(), cabecera.getEstado(), cabecera.getFechaFinEstimado());
+	}
+	
+	@Override
+	public void estadoCambiado(Proyecto proyecto, String estadoAnterior) {
+		if (proyecto.estaFinalizado()) {
+			cancelar(proyecto.getNumeroProyecto());
+		}
+	}
+	
+	@Override
+	public void fechaFinCambiada(Proyecto proyecto, LocalDate fechaAnterior) {
+		agregar(proyecto);
+	}
+	
+	public synchronized int cantidadProgramados() {
+		return programados.size();
+	}
+	
+	/**
+	 * Avanza la rueda hasta hoy y avisa a los observadores de los proyectos que
+	 * quedaron próximos a vencer o vencidos. Una fecha anterior a la actual solo
+	 * entrega los avisos pendientes.
+	 */
+	public void avanzarHasta(LocalDate hoy) {
+		List<Aviso> disparados = new ArrayList<>();
+		synchronized (this) {
+			long objetivo = hoy.toEpochDay();
+			if (programados.isEmpty() && objetivo > actual) {
+				actual = objetivo;
+			}
+			while (actual < objetivo) {
+				avanzarUnDia();
+			}
+			recolectar(listos, disparados);
+			listos.clear();
+		}
+		for (Aviso a : disparados) {
+			LocalDate fin = LocalDate.ofEpochDay(a.fin);
+			for (ObservadorVencimientos o : observadores) {
+				if (a.vencido) {
+					o.vencido(a.numero, fin);
+				} else {
+					o.proximoAVencer(a.numero, fin);
+				}
+			}
+		}
+	}
+	
+	// METODOS AUXILIARES
+	
+	// reemplaza los avisos anteriores del proyecto; los viejos se descartan al llegar a su ranura
+	private synchronized void programar(int numero, String estado, LocalDate fechaFin) {
+		cancelar(numero);
+		if (Estado.finalizado.equals(estado)) {
+			return;
+		}
+		long fin = fechaFin.toEpochDay();
+		Aviso proximo = new Aviso(numero, fin, false);
+		Aviso vencido = new Aviso(numero, fin, true);
+		programados.put(numero, new Aviso[] {proximo, vencido});
+		// si ya venció no tiene sentido avisar que está por vencer
+		if (fin >= actual) {
+			insertar(proximo, fin - diasDeAviso);
+		}
+		insertar(vencido, fin + 1);
+	}
+	
+	private synchronized void cancelar(int numero) {
+		Aviso[] anteriores = programados.remove(numero);
+		if (anteriores != null) {
+			anteriores[0].cancelado = true;
+			anteriores[1].cancelado = true;
+		}
+	}
+	
+	private void insertar(Aviso aviso, long dia) {
+		aviso.dia = dia;
+		long faltan = dia - actual;
+		if (faltan <= 0) {
+			listos.add(aviso);
+			return;
+		}
+		for (int nivel = 0; nivel < NIVELES; nivel++) {
+			if (faltan < 1L << (BITS * (nivel + 1))) {
+				int ranura = (int) ((dia >>> (BITS * nivel)) & (RANURAS - 1));
+				if (ranuras[nivel][ranura] == null) {
+					ranuras[nivel][ranura] = new ArrayList<>();
+				}
+				ranuras[nivel][ranura].add(aviso);
+				return;
+			}
+		}
+		lejanos.add(aviso);
+	}
+	
+	private void avanzarUnDia() {
+		actual++;
+		// al empezar un bloque de un nivel, sus avisos bajan a los niveles de abajo
+		for (int nivel = 1; nivel <= NIVELES; nivel++) {
+			if ((actual & ((1L << (BITS * nivel)) - 1)) != 0) {
+				break;
+			}
+			if (nivel == NIVELES) {
+				reinsertar(lejanos);
+			} else {
+				int ranura = (int) ((actual >>> (BITS * nivel)) & (RANURAS - 1));
+				reinsertar(ranuras[nivel][ranura]);
+				ranuras[nivel][ranura] = null;
+			}
+		}
+		int ranura = (int) (actual & (RANURAS - 1));
+		List<Aviso> hoy = ranuras[0][ranura];
+		if (hoy != null) {
+			listos.addAll(hoy);
+			ranuras[0][ranura] = null;
+		}
+	}
+	
+	private void reinsertar(List<Aviso> avisos) {
+		if (avisos == null) {
+			return;
+		}
+		List<Aviso> copia = new ArrayList<>(avisos);
+		avisos.clear();
+		for (Aviso a : copia) {
+			if (!a.cancelado) {
+				insertar(a, a.dia);
+			}
+		}
+	}
+	
+	private void recolectar(List<Aviso> avisos, List<Aviso> disparados) {
+		for (Aviso a : avisos) {
+			if (a.cancelado || a.disparado) {
+				continue;
+			}
+			// si se saltearon varios días de golpe, el aviso de vencido alcanza
+			if (!a.vencido && actual > a.fin) {
+				continue;
+			}
+			a.disparado = true;
+			disparados.add(a);
+		}
+	}
+	
+	private static class Aviso {
+		private final int numero;
+		private final long fin;
+		private final boolean vencido;
+		private long dia;
+		private boolean cancelado;
+		private boolean disparado;
+		
+		Aviso(int numero, long fin, boolean vencido) {
+			this.numero = numero;
+			this.fin = fin;
+			this.vencido = vencido;
+		}
+	}
+}
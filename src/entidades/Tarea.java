@@ -9,6 +9,11 @@ public class Tarea {
 	private int diasRetraso;
 	private Empleado empleadoAsignado;
 	private boolean terminada;
+	private double costoDiarioFinal; // costo diario del responsable al terminar la tarea
+	private Proyecto proyecto;
+	private double costoInformado;
+	private boolean retrasoInformado;
+	private int diasSinAsignarInformados;
 	
 	public Tarea(String titulo, String descripcion, int diasNecesarios) {
 		if(titulo == null || titulo.isBlank()) {
@@ -28,6 +33,18 @@ public class Tarea {
 		this.terminada = false;
 	}
 	
+	// restaura el estado guardado en una instantánea, antes de vincular la tarea al proyecto
+	void restaurarEstado(int diasRetraso, boolean terminada, double costoDiarioFinal, Empleado empleadoAsignado) {
+		this.diasRetraso = diasRetraso;
+		this.terminada = terminada;
+		this.costoDiarioFinal = costoDiarioFinal;
+		this.empleadoAsignado = empleadoAsignado;
+	}
+	
+	double getCostoDiarioFinal() {
+		return costoDiarioFinal;
+	}
+	
 	public String getTitulo() {
 		return titulo;
 	}
@@ -46,25 +63,59 @@ public class Tarea {
 	public boolean estaTerminada() {
 		return terminada;
 	}
+	public Proyecto getProyecto() {
+		return proyecto;
+	}
+	
+	// la tarea queda atada al proyecto y le informa su costo actual
+	void vincular(Proyecto proyecto) {
+		if(this.proyecto != null && this.proyecto != proyecto) {
+			throw new IllegalStateException("La tarea ya pertenece a otro proyecto");
+		}
+		this.proyecto = proyecto;
+		informarCosto();
+	}
 	
 	public void asignarEmpleado(Empleado empleado) {
 		if(empleado == null) {
 			throw new IllegalArgumentException("El empleado asigndo no puede ser nulo");
 		}
-		if(!empleado.estaDisponible()) {
+		if(terminada) {
+			throw new IllegalStateException("No se puede asignar un empleado a una tarea finalizada"); 
+		}
+		if(empleadoAsignado != null) {
+			throw new IllegalStateException("La tarea ya tiene un empleado asignado");
+		}
+		if(!empleado.intentarAsignar()) {
 			throw new IllegalArgumentException("El empleado no está disponible para asignar");
 		}
+		ocupar(empleado);
+	}
+	
+	// asigna un empleado que quien llama ya tomó con Empleado.intentarAsignar();
+	// si no puede, lo devuelve al pool para que no quede tomado sin tarea
+	void asignarEmpleadoTomado(Empleado empleado) {
 		if(terminada) {
-			throw new IllegalStateException("No se puede asignar un empleado a una tarea finalizada"); 
+			empleado.liberar();
+			throw new IllegalStateException("No se puede asignar un empleado a una tarea finalizada");
 		}
+		if(empleadoAsignado != null) {
+			empleado.liberar();
+			throw new IllegalStateException("La tarea ya tiene un empleado asignado");
+		}
+		ocupar(empleado);
+	}
+	
+	private void ocupar(Empleado empleado) {
 		this.empleadoAsignado = empleado;
-		empleado.asignar();
+		informarCosto();
 	}
 	
 	public void liberarEmpleado() {
 		if(empleadoAsignado != null) {
 			empleadoAsignado.liberar();
 			empleadoAsignado = null;
+			informarCosto();
 		}
 	}
 	
@@ -73,32 +124,53 @@ public class Tarea {
 	        throw new IllegalArgumentException("Los días de retraso no pueden ser negativos");
 	    }
 	    this.diasRetraso += diasRetrasoAdicional;
+	    if(proyecto != null && diasRetrasoAdicional > 0) {
+	    	proyecto.duracionCambiada(this);
+	    }
+	    informarCosto();
 	}
 	
 	public void marcarComoTerminada() {
 	    if(terminada) {
 	        throw new IllegalStateException("La tarea ya está finalizada");
 	    }
+	    // el trabajo hecho se sigue cobrando aunque el empleado quede libre
+	    costoDiarioFinal = empleadoAsignado != null ? empleadoAsignado.calcularCostoDiario() : 0;
 	    terminada = true;
 	    liberarEmpleado(); // esto libera al empleado automáticamente
+	    informarCosto(); // avisa al proyecto aunque no hubiera empleado
 	}
 	
 	public double calcularCosto() {
-	    if(empleadoAsignado == null) {
-	        return 0;
+	    double costoDiario;
+	    if(empleadoAsignado != null) {
+	    	costoDiario = empleadoAsignado.calcularCostoDiario();
+	    } else if(terminada) {
+	    	costoDiario = costoDiarioFinal;
+	    } else {
+	    	return 0;
 	    }
 	    int diasRealesTrabajados = diasNecesarios + diasRetraso;
-	    //para los cotnratados: costo por hora * horas trabajadas
-	    if(empleadoAsignado instanceof EmpleadoContratado) {
-	    	EmpleadoContratado ec = (EmpleadoContratado) empleadoAsignado;
-	    	return ec.getValorHora() * 8 * diasRealesTrabajados;
-	    }
-	    //para los de planta: costo por día * días trabajados
-	    else if(empleadoAsignado instanceof EmpleadoPlanta) {
-	    	EmpleadoPlanta ep = (EmpleadoPlanta) empleadoAsignado;
-	    	return ep.getValorDia() * diasRealesTrabajados;
-	    }
-	    return 0;
+	    return costoDiario * diasRealesTrabajados;
+	}
+	
+	// le pasa al proyecto solo la diferencia con lo último informado y le avisa que cambió
+	private void informarCosto() {
+		if(proyecto == null) return;
+		double costo = calcularCosto();
+		boolean conRetraso = diasRetraso > 0;
+		int diasSinAsignar = !terminada && empleadoAsignado == null ? diasNecesarios + diasRetraso : 0;
+		double delta = costo - costoInformado;
+		int deltaRetrasadas = (conRetraso ? 1 : 0) - (retrasoInformado ? 1 : 0);
+		int deltaDiasSinAsignar = diasSinAsignar - diasSinAsignarInformados;
+		costoInformado = costo;
+		retrasoInformado = conRetraso;
+		diasSinAsignarInformados = diasSinAsignar;
+		if(delta != 0 || deltaRetrasadas != 0 || deltaDiasSinAsignar != 0) {
+			proyecto.registrarCambioCosto(delta, deltaRetrasadas, deltaDiasSinAsignar);
+		}
+		proyecto.notificarCambioTarea(this);
+		proyecto.notificarModificacion();
 	}
 	
 	public String getClave() {
@@ -0,0 +1,45 @@
+package entidades;
+
+import java.time.LocalDate;
+
+/**
+ * Datos de una tarea sin asignar tal como estaban al entrar en ColaTareasPendientes.
+ * Son fijos mientras la tarea está en la cola, así el orden no se rompe si la
+ * tarea cambia: cada cambio la saca y la vuelve a poner con los datos nuevos.
+ */
+public class TareaPendiente {
+	private final int numeroProyecto;
+	private final String titulo;
+	private final String clave;
+	private final LocalDate fechaInicioProyecto;
+	private final int diasNecesarios;
+	private final int diasRetraso;
+	
+	TareaPendiente(Proyecto proyecto, Tarea tarea) {
+		this.numeroProyecto = proyecto.getNumeroProyecto();
+		this.titulo = tarea.getTitulo();
+		this.clave = tarea.getClave();
+		this.fechaInicioProyecto = proyecto.getFechaInicio();
+		this.diasNecesarios = tarea.getDiasNecesarios();
+		this.diasRetraso = tarea.getDiasRetraso();
+	}
+	
+	public int getNumeroProyecto() {
+		return numeroProyecto;
+	}
+	public String getTitulo() {
+		return titulo;
+	}
+	String getClave() {
+		return clave;
+	}
+	public LocalDate getFechaInicioProyecto() {
+		return fechaInicioProyecto;
+	}
+	public int getDiasNecesarios() {
+		return diasNecesarios;
+	}
+	public int getDiasRetraso() {
+		return diasRetraso;
+	}
+}
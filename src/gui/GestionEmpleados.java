@@ -1,6 +1,7 @@
 package gui;
 
 import entidades.Estado;
+import entidades.Pagina;
 import entidades.Tupla;
 
 import javax.swing.*;
@@ -8,7 +9,6 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
-import java.util.ArrayList;
 import java.util.List;
 
 public class GestionEmpleados extends JPanel{
@@ -19,6 +19,10 @@ public class GestionEmpleados extends JPanel{
     private JScrollPane scrollPane;
     private JButton verRetrasos;
     private JButton volverPrincipal;
+    private JButton siguientes;
+    private JButton primera;
+    private String cursor;
+    private static final int TAMANIO_PAGINA = 50;
 
     public GestionEmpleados(PanelManager panelManager) {
         this.panelManager = panelManager;
@@ -35,6 +39,21 @@ public class GestionEmpleados extends JPanel{
                 panelManager.mostrar(1);
             }
         });
+        siguientes.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if(cursor!=null)
+                    cargarTabla(modelTabla);
+            }
+        });
+        // vuelve a la primera página y toma los empleados registrados mientras tanto
+        primera.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                cursor=null;
+                cargarTabla(modelTabla);
+            }
+        });
 
         verRetrasos.addActionListener(new ActionListener() {
             @Override
@@ -65,6 +84,8 @@ public class GestionEmpleados extends JPanel{
         scrollPane=new JScrollPane(tablaEmpleados);
         verRetrasos=new JButton("Ver retrasos del empleado seleccionado");
         volverPrincipal = new JButton("Volver al menu");
+        siguientes=new JButton("Siguientes");
+        primera=new JButton("Primera");
         gestionEmpleados = new JPanel();
         gestionEmpleados.setLayout(new GridBagLayout());
         gbc.fill = GridBagConstraints.HORIZONTAL;
@@ -77,6 +98,12 @@ public class GestionEmpleados extends JPanel{
         gbc.gridx=1;
         gbc.gridy=2;
         gestionEmpleados.add(verRetrasos,gbc);
+        gbc.gridx=0;
+        gbc.gridy=2;
+        gestionEmpleados.add(siguientes,gbc);
+        gbc.gridx=2;
+        gbc.gridy=2;
+        gestionEmpleados.add(primera,gbc);
         gbc.gridx = 2;
         gbc.gridy=3;
         gbc.gridwidth = 2;
@@ -87,9 +114,12 @@ public class GestionEmpleados extends JPanel{
         gbc.weighty = 1.0;
         gestionEmpleados.add(volverPrincipal, gbc);
     }
+    // carga la página que sigue al cursor; con cursor null, la primera
     private void cargarTabla(DefaultTableModel tableModel){
-        List<Tupla<Integer,String>> empleados;
-        empleados = panelManager.sistema().empleados();
+        Pagina<Tupla<Integer,String>> pagina = panelManager.sistema().empleados(TAMANIO_PAGINA, cursor);
+        List<Tupla<Integer,String>> empleados = pagina.getElementos();
+        cursor = pagina.getSiguiente();
+        siguientes.setEnabled(pagina.hayMas());
         tableModel.setRowCount(0);
         if(empleados!=null)
             for(Tupla<Integer,String> t:empleados) {
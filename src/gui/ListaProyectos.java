@@ -2,6 +2,7 @@ package gui;
 
 import entidades.Estado;
 import entidades.HomeSolution;
+import entidades.Pagina;
 import entidades.Proyecto;
 import entidades.Tupla;
 
@@ -13,7 +14,6 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.List;
-import java.util.ArrayList;
 
 public class ListaProyectos extends JPanel{
     private PanelManager panelManager;
@@ -26,6 +26,10 @@ public class ListaProyectos extends JPanel{
     private JTable proyectos;
     private JButton mostrar;
     private JButton gestion;
+    private JButton siguientes;
+    private String estadoMostrado;
+    private String cursor;
+    private static final int TAMANIO_PAGINA = 50;
 
 
     public ListaProyectos(PanelManager panelManager) {
@@ -39,6 +43,7 @@ public class ListaProyectos extends JPanel{
             @Override
             public void actionPerformed(ActionEvent e) {
 
+                cursor=null;
                 if(pendiente.isSelected())
                     cargarTabla(Estado.pendiente,modelTabla);
                 if(activo.isSelected())
@@ -49,6 +54,13 @@ public class ListaProyectos extends JPanel{
                     JOptionPane.showMessageDialog(null, "No hay proyectos");
             }
         });
+        siguientes.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if(cursor!=null)
+                    cargarTabla(estadoMostrado,modelTabla);
+            }
+        });
         gestion.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -84,6 +96,8 @@ public class ListaProyectos extends JPanel{
         JScrollPane scrollPane = new JScrollPane(proyectos);
         mostrar=new JButton("Mostrar proyectos seleccionados");
         gestion=new JButton("Ver seleccionado");
+        siguientes=new JButton("Siguientes");
+        siguientes.setEnabled(false);
         listaProyectos=new JPanel();
         listaProyectos.setLayout(new GridBagLayout());
 
@@ -110,6 +124,9 @@ public class ListaProyectos extends JPanel{
         gbc.gridx = 0;
         gbc.gridy = 4;
         listaProyectos.add(scrollPane, gbc);
+        gbc.gridx = 2;
+        gbc.gridy = 4;
+        listaProyectos.add(siguientes, gbc);
         gbc.gridx = 0;
         gbc.gridy = 5;
         gbc.gridwidth = 3;
@@ -121,21 +138,13 @@ public class ListaProyectos extends JPanel{
         listaProyectos.add(gestion,gbc);
 
     }
+    // carga la página que sigue al cursor; con cursor null, la primera
     private void cargarTabla(String opcion,DefaultTableModel tableModel){
-        List <Tupla<Integer,String>> proyectos=new ArrayList<>();
-
-        switch(opcion)
-        {
-            case Estado.pendiente:
-                proyectos = panelManager.sistema().proyectosPendientes();
-                break;
-            case Estado.activo:
-                proyectos = panelManager.sistema().proyectosActivos();
-            break;
-            case Estado.finalizado:
-                proyectos = panelManager.sistema().proyectosFinalizados();
-                break;
-        }
+        Pagina<Tupla<Integer,String>> pagina = panelManager.sistema().proyectosPorEstado(opcion, TAMANIO_PAGINA, cursor);
+        List <Tupla<Integer,String>> proyectos = pagina.getElementos();
+        estadoMostrado = opcion;
+        cursor = pagina.getSiguiente();
+        siguientes.setEnabled(pagina.hayMas());
         tableModel.setRowCount(0);
 
         for(Tupla<Integer,String> t:proyectos) {
@@ -1,15 +1,67 @@
 package test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import entidades.ColaTareasPendientes;
+import entidades.Comando;
+import entidades.Empleado;
+import entidades.EmpleadoContratado;
+import entidades.EmpleadoPlanta;
+import entidades.Estado;
+import entidades.EstrategiaDespacho;
+import entidades.ExportadorReportes;
+import entidades.HeapRetrasos;
 import entidades.HomeSolution;
+import entidades.HomeSolutionAsincronica;
+import entidades.HomeSolutionConcurrente;
+import entidades.HomeSolutionPersistente;
 import entidades.IHomeSolution;
+import entidades.ObservadorVencimientos;
+import entidades.ImportadorProyectos;
+import entidades.Instantanea;
+import entidades.Pagina;
+import entidades.Pronostico;
+import entidades.PuntosDeControl;
+import entidades.RegistroMutaciones;
+import entidades.ResultadoComando;
+import entidades.ResultadoImportacion;
+import entidades.Tarea;
 import entidades.Tupla;
 
 public class HomeSolutionTest {
@@ -53,6 +105,27 @@ public class HomeSolutionTest {
         homeSolution.registrarEmpleado("Ana", 600.0, "Senior");
     }
 
+    @Test
+    public void testRegistrarLoteDeEmpleados() {
+        int[] legajos = homeSolution.registrarEmpleados(new String[]{"Ana", "Beto"},
+                new double[]{600.0, 700.0}, new String[]{"TECNICO", null});
+        assertEquals(5, legajos[0]);
+        assertEquals(6, legajos[1]);
+        assertEquals(6, homeSolution.empleadosNoAsignados().length);
+    }
+
+    @Test
+    public void testLoteInvalidoNoRegistraNinguno() {
+        try {
+            homeSolution.registrarEmpleados(new String[]{"Ana", "Beto"},
+                    new double[]{600.0, 700.0}, new String[]{"TECNICO", "Senior"});
+            fail("La categoría Senior no es válida");
+        } catch (IllegalArgumentException e) {
+            // esperado
+        }
+        assertEquals(4, homeSolution.empleados().size());
+    }
+
     // ============================================================
     // REGISTRO DE PROYECTOS
     // ============================================================
@@ -98,6 +171,14 @@ public class HomeSolutionTest {
         List<Tupla<Integer, String>> lista = homeSolution.proyectosPendientes();
         assertTrue(lista.size()==2);
     }
+
+    @Test
+    public void testProyectoFinalizadoCambiaDeLista() {
+        Integer numeroProyecto = (homeSolution.proyectosPendientes().get(0)).getValor1();
+        homeSolution.finalizarProyecto(numeroProyecto, "2025-12-10");
+        assertEquals(1, homeSolution.proyectosPendientes().size());
+        assertEquals(numeroProyecto, homeSolution.proyectosFinalizados().get(0).getValor1());
+    }
     // ============================================================
     // REASIGNACIÓN Y FINALIZACIÓN
     // ============================================================
@@ -184,6 +265,35 @@ public class HomeSolutionTest {
         assertEquals(homeSolution.consultarCantidadRetrasosEmpleado(empleados.get(0).getValor1()),0);
     }
     @Test
+    public void testHeapRetrasosSigueLosCambiosDeRetrasosYDisponibilidad() {
+        HeapRetrasos heap = new HeapRetrasos();
+        Empleado ana = new EmpleadoContratado(1, "Ana", 100);
+        Empleado beto = new EmpleadoContratado(2, "Beto", 100);
+        Empleado carla = new EmpleadoPlanta(3, "Carla", 800, "TECNICO");
+        heap.registrar(ana);
+        heap.registrar(beto);
+        heap.registrar(carla);
+        assertEquals(ana, heap.minimo()); // empatan en 0, gana el legajo menor
+
+        ana.registrarRetrasos(1, 2);
+        assertEquals(beto, heap.minimo());
+
+        assertTrue(beto.intentarAsignar());
+        assertEquals(carla, heap.minimo());
+        assertEquals(2, heap.cantidad());
+
+        // el retraso de un asignado se tiene en cuenta cuando vuelve a estar libre
+        beto.registrarRetrasos(1, 5);
+        carla.registrarRetrasos(2, 3);
+        assertEquals(ana, heap.minimo());
+        beto.liberar();
+        assertEquals(ana, heap.minimo());
+        ana.registrarRetrasos(2, 4);
+        assertEquals(carla, heap.minimo());
+        assertTrue(carla.intentarAsignar());
+        assertEquals(beto, heap.minimo()); // 5 contra 6
+    }
+    @Test
     public void testEmpleadosTareasConRetraso() throws Exception{
         Integer numeroProyecto=homeSolution.proyectosPendientes().get(0).getValor1();
         asignarTareas(numeroProyecto);
@@ -194,6 +304,15 @@ public class HomeSolutionTest {
         assertEquals(conRetraso,2);
     }
     @Test
+    public void testEmpleadoLiberadoVuelveAlFinalDeLaFila() throws Exception{
+        Integer numeroProyecto = (homeSolution.proyectosPendientes().get(0)).getValor1();
+        homeSolution.asignarResponsableEnTarea(numeroProyecto,"Pintar");
+        homeSolution.finalizarTarea(numeroProyecto,"pintar");
+        Object[] libres=homeSolution.empleadosNoAsignados();
+        assertEquals(4, libres.length);
+        assertEquals(1, Integer.parseInt(libres[3].toString()));
+    }
+    @Test
     public void testEmpleadosLiberadosCorrectamente() throws Exception{
         Integer numeroProyecto = (homeSolution.proyectosPendientes().get(0)).getValor1();
         asignarTareas(numeroProyecto);
@@ -208,6 +327,26 @@ public class HomeSolutionTest {
         assertEquals(calculoCostoSinRetraso(), homeSolution.costoProyecto(numeroProyecto), 0.001);
     }
     @Test
+    public void testCostoSeActualizaAlRegistrarRetraso() throws Exception{
+        Integer numeroProyecto = (homeSolution.proyectosPendientes().get(0)).getValor1();
+        asignarTareas(numeroProyecto);
+        double sinRecargo = homeSolution.costoProyecto(numeroProyecto) / 1.35;
+        homeSolution.registrarRetrasoEnTarea(numeroProyecto,"Pintar",1);
+        assertEquals((sinRecargo + 15000*8) * 1.25, homeSolution.costoProyecto(numeroProyecto), 0.001);
+    }
+    @Test
+    public void testCostoAgregadoPorEstadoYCliente() throws Exception{
+        HomeSolution sistema = (HomeSolution) homeSolution;
+        Integer numeroProyecto = (homeSolution.proyectosPendientes().get(0)).getValor1();
+        asignarTareas(numeroProyecto);
+        double costo = homeSolution.costoProyecto(numeroProyecto);
+        assertEquals(costo, sistema.costoTotalPorEstado(Estado.activo), 0.001);
+        homeSolution.finalizarProyecto(numeroProyecto,"2025-12-10");
+        assertEquals(0, sistema.costoTotalPorEstado(Estado.activo), 0.001);
+        assertEquals(homeSolution.costoProyecto(numeroProyecto), sistema.costoTotalPorEstado(Estado.finalizado), 0.001);
+        assertEquals(homeSolution.costoProyecto(numeroProyecto), sistema.costoTotalPorCliente("Pedro Gomez"), 0.001);
+    }
+    @Test
     public void testCalculaCostoConRetrasosCorrectamente() throws Exception{
         Integer numeroProyecto = (homeSolution.proyectosPendientes().get(0)).getValor1();
         asignarTareas(numeroProyecto);
@@ -233,6 +372,946 @@ public class HomeSolutionTest {
 
 
 
+    @Test
+    public void testEjecutarLoteDevuelveUnResultadoPorComando() {
+        Integer numeroProyecto = (homeSolution.proyectosPendientes().get(0)).getValor1();
+        List<ResultadoComando> resultados = homeSolution.ejecutarLote(Arrays.asList(
+                Comando.asignar(numeroProyecto, "Pintar"),
+                Comando.agregarTarea(numeroProyecto, "Limpieza", "limpieza general", 1),
+                Comando.registrarRetraso(numeroProyecto, "Pintar", 2),
+                Comando.finalizarTarea(numeroProyecto, "Pintar"),
+                Comando.asignar(numeroProyecto, "No existe"),
+                Comando.asignar(99, "Pintar")));
+        assertEquals(6, resultados.size());
+        assertTrue(resultados.get(3).esExitoso());
+        assertFalse(resultados.get(4).esExitoso());
+        assertFalse(resultados.get(5).esExitoso());
+        assertEquals(2, homeSolution.consultarCantidadRetrasosEmpleado(1));
+        assertEquals(4, homeSolution.empleadosNoAsignados().length);
+    }
+
+    @Test
+    public void testInstantaneaRestauraElMismoEstado() throws Exception {
+        asignarTareas(1);
+        homeSolution.registrarRetrasoEnTarea(1, "Pintar", 2);
+        Path archivo = Files.createTempFile("homesolution", ".snap");
+        try {
+            Instantanea.guardar((HomeSolution) homeSolution, archivo);
+            IHomeSolution restaurado = Instantanea.restaurar(archivo);
+
+            assertEquals(homeSolution.consultarProyecto(1), restaurado.consultarProyecto(1));
+            assertEquals(homeSolution.costoProyecto(1), restaurado.costoProyecto(1), 0.001);
+            assertEquals(Arrays.asList(homeSolution.empleadosNoAsignados()), Arrays.asList(restaurado.empleadosNoAsignados()));
+            assertEquals(homeSolution.proyectosPendientes().size(), restaurado.proyectosPendientes().size());
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    @Test
+    public void testGuardarMientrasSeAbrenProyectosNoPierdeNinguno() throws Exception {
+        HomeSolution sistema = new HomeSolution();
+        String cliente[]={"Pedro Gomez", "mail@mail.com", "123456"};
+        int cantidad = 300;
+        for (int p = 0; p < cantidad; p++) {
+            sistema.registrarProyecto(new String[]{"A"}, new String[]{""}, new double[]{1}, "Calle " + p, cliente, "2026-01-01", "2026-01-05");
+        }
+        Path archivo = Files.createTempFile("homesolution", ".snap");
+        Path copia = Files.createTempFile("homesolution", ".snap");
+        int hilos = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        try {
+            Instantanea.guardar(sistema, archivo);
+            HomeSolution abierto = Instantanea.abrir(archivo);
+            // todos los hilos piden cada proyecto a la vez: uno lo arma y los demás lo buscan en
+            // el medio; ninguno puede dejar de encontrarlo, y entre proyecto y proyecto se guarda
+            CyclicBarrier paso = new CyclicBarrier(hilos, () -> {
+                try {
+                    Instantanea.guardar(abierto, copia);
+                    assertEquals(cantidad, Instantanea.restaurar(copia).proyectosPendientes().size());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            List<Future<?>> consultas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                consultas.add(executor.submit(() -> {
+                    for (int n = 1; n <= cantidad; n++) {
+                        assertEquals("Calle " + (n - 1), abierto.consultarDomicilioProyecto(n));
+                        assertFalse(abierto.consultarProyecto(n).isEmpty());
+                        paso.await();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> consulta : consultas) {
+                consulta.get(30, TimeUnit.SECONDS);
+            }
+            assertEquals(sistema.toString(), Instantanea.restaurar(copia).toString());
+        } finally {
+            executor.shutdownNow();
+            Files.deleteIfExists(archivo);
+            Files.deleteIfExists(copia);
+        }
+    }
+
+    @Test
+    public void testInstantaneaAbiertaCargaProyectosAlConsultarlos() throws Exception {
+        asignarTareas(2);
+        homeSolution.finalizarProyecto(2, "2025-12-20");
+        Path archivo = Files.createTempFile("homesolution", ".snap");
+        try {
+            Instantanea.guardar((HomeSolution) homeSolution, archivo);
+            IHomeSolution abierto = Instantanea.abrir(archivo);
+
+            assertEquals(1, abierto.proyectosFinalizados().size());
+            assertEquals(homeSolution.costoProyecto(2), ((HomeSolution) abierto).costoTotalPorEstado(Estado.finalizado), 0.001);
+            assertEquals(homeSolution.consultarProyecto(1), abierto.consultarProyecto(1));
+            abierto.asignarResponsableEnTarea(1, "Pintar");
+            assertEquals(1, abierto.proyectosActivos().size());
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    @Test
+    public void testPuntoDeControlIncrementalGuardaSoloLoModificado() throws Exception {
+        Path base = Files.createTempFile("homesolution", ".snap");
+        try (PuntosDeControl puntos = new PuntosDeControl((HomeSolution) homeSolution, base, 10)) {
+            homeSolution.asignarResponsableEnTarea(1, "Pintar");
+            homeSolution.registrarRetrasoEnTarea(1, "Pintar", 3);
+            puntos.incremental();
+            homeSolution.finalizarTarea(1, "Pintar");
+            puntos.incremental();
+
+            IHomeSolution restaurado = PuntosDeControl.restaurar(base);
+            assertEquals(homeSolution.consultarProyecto(1), restaurado.consultarProyecto(1));
+            assertEquals(homeSolution.consultarCantidadRetrasosEmpleado(1), restaurado.consultarCantidadRetrasosEmpleado(1));
+            assertEquals(Arrays.asList(homeSolution.empleadosNoAsignados()), Arrays.asList(restaurado.empleadosNoAsignados()));
+        } finally {
+            for (int i = 1; i <= 2; i++) {
+                Files.deleteIfExists(base.resolveSibling(base.getFileName() + ".delta." + i));
+            }
+            Files.deleteIfExists(base);
+        }
+    }
+
+    @Test
+    public void testDeltaNoCreceConLosEmpleadosLibres() throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            homeSolution.registrarEmpleado("Libre " + i, 1000);
+        }
+        Path base = Files.createTempFile("homesolution", ".snap");
+        Path delta = base.resolveSibling(base.getFileName() + ".delta.1");
+        try (PuntosDeControl puntos = new PuntosDeControl((HomeSolution) homeSolution, base, 10)) {
+            // el primero de la fila se ocupa y se libera: pasa al final
+            homeSolution.asignarResponsableEnTarea(1, "Pintar");
+            homeSolution.finalizarTarea(1, "Pintar");
+            puntos.incremental();
+
+            assertTrue(Files.size(delta) < 1000);
+            IHomeSolution restaurado = PuntosDeControl.restaurar(base);
+            assertEquals(Arrays.asList(homeSolution.empleadosNoAsignados()), Arrays.asList(restaurado.empleadosNoAsignados()));
+            assertEquals(1, restaurado.empleadosNoAsignados()[restaurado.empleadosNoAsignados().length - 1]);
+        } finally {
+            Files.deleteIfExists(delta);
+            Files.deleteIfExists(base);
+        }
+    }
+
+    @Test
+    public void testCompactacionArmaLaBaseDesdeLosArchivos() throws Exception {
+        Path base = Files.createTempFile("homesolution", ".snap");
+        // la compactación no puede pausar el sistema en vivo
+        PuntosDeControl.Pausa sinPausarAlCompactar = lectura -> {
+            if (Thread.currentThread().getName().startsWith("compactacion")) {
+                throw new IllegalStateException("La compactación pausó el sistema");
+            }
+            lectura.leer();
+        };
+        try {
+            PuntosDeControl puntos = new PuntosDeControl((HomeSolution) homeSolution, base, 2, sinPausarAlCompactar);
+            homeSolution.asignarResponsableEnTarea(1, "Pintar");
+            puntos.incremental();
+            homeSolution.registrarRetrasoEnTarea(1, "Pintar", 2);
+            puntos.incremental();
+            homeSolution.finalizarTarea(1, "Pintar");
+            puntos.incremental();
+            homeSolution.asignarResponsableEnTarea(2, "Pintar");
+            puntos.incremental();
+            puntos.close();
+
+            assertEquals(null, puntos.getErrorCompactacion());
+            assertFalse(Files.exists(base.resolveSibling(base.getFileName() + ".delta.1")));
+            IHomeSolution restaurado = PuntosDeControl.restaurar(base);
+            assertEquals(homeSolution.consultarProyecto(1), restaurado.consultarProyecto(1));
+            assertEquals(homeSolution.consultarProyecto(2), restaurado.consultarProyecto(2));
+            assertEquals(Arrays.asList(homeSolution.empleadosNoAsignados()), Arrays.asList(restaurado.empleadosNoAsignados()));
+        } finally {
+            for (int i = 1; i <= 4; i++) {
+                Files.deleteIfExists(base.resolveSibling(base.getFileName() + ".delta." + i));
+            }
+            Files.deleteIfExists(base);
+        }
+    }
+
+    @Test
+    public void testCompactacionFallidaSeInformaAlCerrar() throws Exception {
+        Path base = Files.createTempFile("homesolution", ".snap");
+        // un directorio donde la compactación quiere escribir su temporal
+        Path bloqueo = Files.createDirectory(base.resolveSibling(base.getFileName() + ".compactada.tmp"));
+        try {
+            PuntosDeControl puntos = new PuntosDeControl((HomeSolution) homeSolution, base, 1);
+            homeSolution.asignarResponsableEnTarea(1, "Pintar");
+            puntos.incremental();
+            try {
+                puntos.close();
+                fail("La compactación falló");
+            } catch (IOException e) {
+                assertTrue(e.getCause() instanceof IOException);
+            }
+            assertTrue(puntos.getErrorCompactacion() instanceof IOException);
+
+            // la cadena sigue completa
+            IHomeSolution restaurado = PuntosDeControl.restaurar(base);
+            assertEquals(homeSolution.consultarProyecto(1), restaurado.consultarProyecto(1));
+        } finally {
+            Files.deleteIfExists(bloqueo);
+            Files.deleteIfExists(base.resolveSibling(base.getFileName() + ".delta.1"));
+            Files.deleteIfExists(base);
+        }
+    }
+
+    @Test
+    public void testPuntosDeControlConEscriturasConcurrentes() throws Exception {
+        Path carpeta = Files.createTempDirectory("homesolution");
+        Path base = carpeta.resolve("base.snap");
+        HomeSolutionPersistente persistente = HomeSolutionPersistente.abrir(carpeta.resolve("registro.log"));
+        ExecutorService hilos = Executors.newFixedThreadPool(3);
+        try (PuntosDeControl puntos = new PuntosDeControl(persistente.getSistema(), base, 3, persistente::conSistemaQuieto)) {
+            List<Future<?>> escritores = new ArrayList<>();
+            for (int h = 0; h < 2; h++) {
+                final int hilo = h;
+                escritores.add(hilos.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        persistente.registrarEmpleado("E" + hilo + "-" + i, 1000 + i);
+                        persistente.registrarProyecto(new String[]{"A", "B"}, new String[]{"", ""}, new double[]{1, 2},
+                                "Calle " + i, new String[]{"Cliente", "mail@mail.com", "123"}, "2025-12-01", "2025-12-05");
+                        try {
+                            // cada hilo ya registró i + 1 proyectos, así que este existe
+                            persistente.asignarResponsableEnTarea(i + 1, hilo == 0 ? "A" : "B");
+                        } catch (IllegalStateException e) {
+                            // la tarea ya la asignó el otro hilo
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Future<?> controles = hilos.submit(() -> {
+                while (!escritores.stream().allMatch(Future::isDone)) {
+                    puntos.incremental();
+                }
+                return null;
+            });
+            for (Future<?> escritor : escritores) {
+                escritor.get(30, TimeUnit.SECONDS);
+            }
+            controles.get(30, TimeUnit.SECONDS);
+            puntos.incremental();
+        } finally {
+            hilos.shutdownNow();
+            persistente.close();
+        }
+        try {
+            HomeSolution restaurado = PuntosDeControl.restaurar(base);
+            assertEquals(persistente.getSistema().toString(), restaurado.toString());
+            assertEquals(Arrays.asList(persistente.empleadosNoAsignados()), Arrays.asList(restaurado.empleadosNoAsignados()));
+        } finally {
+            try (Stream<Path> archivos = Files.list(carpeta)) {
+                for (Path archivo : (Iterable<Path>) archivos::iterator) {
+                    Files.delete(archivo);
+                }
+            }
+            Files.delete(carpeta);
+        }
+    }
+
+    @Test
+    public void testPersistenteEscribeAntesDeAplicar() throws Exception {
+        Path log = Files.createTempFile("homesolution", ".log");
+        Files.delete(log);
+        try {
+            HomeSolutionPersistente persistente = HomeSolutionPersistente.abrir(log);
+            persistente.registrarEmpleado("Ana", 1000);
+            persistente.registrarProyecto(new String[]{"A", "B"}, new String[]{"", ""}, new double[]{1, 2},
+                    "Calle 1", new String[]{"Cliente", "mail@mail.com", "123"}, "2025-12-01", "2025-12-05");
+            persistente.asignarResponsableEnTarea(1, "A");
+            long tamanio = Files.size(log);
+
+            // una operación rechazada no queda en el registro
+            try {
+                persistente.asignarResponsableEnTarea(1, "B");
+                fail("No hay empleados libres");
+            } catch (IllegalStateException e) {
+            }
+            List<ResultadoComando> lote = persistente.ejecutarLote(Arrays.asList(
+                    Comando.finalizarTarea(1, "Inexistente"), Comando.asignar(1, "B")));
+            assertFalse(lote.get(0).esExitoso());
+            assertFalse(lote.get(1).esExitoso());
+            assertEquals(tamanio, Files.size(log));
+
+            // si no se puede escribir, la operación no se aplica
+            persistente.close();
+            try {
+                persistente.registrarEmpleado("Bruno", 1000);
+                fail("El registro está cerrado");
+            } catch (UncheckedIOException e) {
+            }
+            assertEquals(1, persistente.getSistema().empleados().size());
+
+            HomeSolution reabierto = new HomeSolution();
+            RegistroMutaciones.reproducir(log, reabierto);
+            assertEquals(persistente.getSistema().toString(), reabierto.toString());
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    public void testRegistroDescartaLaColaCortadaOConChecksumInvalido() throws Exception {
+        Path log = Files.createTempFile("homesolution", ".log");
+        Files.delete(log);
+        try {
+            long conDos;
+            try (HomeSolutionPersistente persistente = HomeSolutionPersistente.abrir(log)) {
+                persistente.registrarEmpleado("Ana", 1000);
+                persistente.registrarEmpleado("Bruno", 1000);
+                conDos = Files.size(log);
+                persistente.registrarEmpleado("Carla", 1000);
+            }
+            long conTres = Files.size(log);
+
+            // cola cortada por una caída: se pierde solo la última mutación y se puede seguir escribiendo
+            try (FileChannel canal = FileChannel.open(log, StandardOpenOption.WRITE)) {
+                canal.truncate(conTres - 3);
+            }
+            try (HomeSolutionPersistente persistente = HomeSolutionPersistente.abrir(log)) {
+                assertEquals(2, persistente.empleados().size());
+                assertEquals(conDos, Files.size(log));
+                persistente.registrarEmpleado("Dario", 1000);
+            }
+            try (HomeSolutionPersistente persistente = HomeSolutionPersistente.abrir(log, true)) {
+                assertEquals(3, persistente.empleados().size());
+            }
+
+            // un byte cambiado en la última mutación: el checksum no coincide y se descarta
+            byte[] bytes = Files.readAllBytes(log);
+            bytes[bytes.length - 6] ^= 0x01;
+            Files.write(log, bytes);
+            try (HomeSolutionPersistente persistente = HomeSolutionPersistente.abrir(log)) {
+                assertEquals(2, persistente.empleados().size());
+                assertEquals(conDos, Files.size(log));
+            }
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    public void testRegistroConVariosHilosNoPierdeNiRepiteMutaciones() throws Exception {
+        Path log = Files.createTempFile("homesolution", ".log");
+        Files.delete(log);
+        try {
+            int hilos = 8;
+            int porHilo = 50;
+            try (HomeSolutionPersistente persistente = HomeSolutionPersistente.abrir(log)) {
+                // los fsync se comparten entre los hilos que escribieron mientras tanto
+                ExecutorService executor = Executors.newFixedThreadPool(hilos);
+                List<Future<?>> trabajos = new ArrayList<>();
+                for (int h = 0; h < hilos; h++) {
+                    int hilo = h;
+                    trabajos.add(executor.submit(() -> {
+                        for (int i = 0; i < porHilo; i++) {
+                            persistente.registrarEmpleado("Empleado " + hilo + "-" + i, 1000);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> trabajo : trabajos) {
+                    trabajo.get(30, TimeUnit.SECONDS);
+                }
+                executor.shutdown();
+                assertEquals(hilos * porHilo, persistente.empleados().size());
+            }
+            HomeSolution reabierto = new HomeSolution();
+            assertEquals(hilos * porHilo, RegistroMutaciones.reproducir(log, reabierto));
+            Set<String> nombres = new HashSet<>();
+            for (Tupla<Integer, String> empleado : reabierto.empleados()) {
+                assertTrue(nombres.add(empleado.getValor2()));
+            }
+            assertEquals(hilos * porHilo, nombres.size());
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    public void testReproduccionEnParaleloDaElMismoEstado() throws Exception {
+        Path log = Files.createTempFile("homesolution", ".log");
+        Files.delete(log);
+        try {
+            try (HomeSolutionPersistente persistente = HomeSolutionPersistente.abrir(log)) {
+                persistente.registrarEmpleado("Ana", 1000);
+                persistente.registrarEmpleado("Bruno", 2000, "EXPERTO");
+                persistente.registrarProyecto(new String[]{"A", "B"}, new String[]{"", ""}, new double[]{1, 2},
+                        "Calle 1", new String[]{"Cliente", "mail@mail.com", "123"}, "2025-12-01", "2025-12-05");
+                persistente.registrarProyecto(new String[]{"C"}, new String[]{""}, new double[]{3},
+                        "Calle 2", new String[]{"Cliente", "mail@mail.com", "123"}, "2025-12-01", "2025-12-05");
+                persistente.asignarResponsableEnTarea(1, "A");
+                persistente.registrarRetrasoEnTarea(1, "A", 2);
+                persistente.finalizarTarea(1, "A");
+                persistente.asignarResponsableEnTarea(2, "C");
+                persistente.agregarTareaEnProyecto(1, "D", "", 1);
+                persistente.asignarResponsableMenosRetraso(1, "B");
+            }
+            HomeSolution secuencial = new HomeSolution();
+            RegistroMutaciones.reproducir(log, secuencial);
+            HomeSolution paralelo = new HomeSolution();
+            RegistroMutaciones.reproducirEnParalelo(log, paralelo);
+
+            assertEquals(secuencial.toString(), paralelo.toString());
+            assertEquals(Arrays.asList(secuencial.empleadosNoAsignados()), Arrays.asList(paralelo.empleadosNoAsignados()));
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    public void testImportarCsvRegistraLasFilasValidasYReportaLasOtras() throws Exception {
+        String csv = "domicilio,nombre,email,telefono,inicio,fin,titulo,descripcion,dias\n"
+                + "Calle 1,Ana,ana@mail.com,111,2026-01-01,2026-01-10,Pintar,\"Living, cocina\",2,Pisos,,3\n"
+                + "Calle 2,Beto,beto@mail.com,222,2026-01-01,2025-12-01,Pintar,,2\n"
+                + "Calle 3,Carla,carla@mail.com,333,2026-02-01,2026-02-10,Techo,,dos\n";
+        ImportadorProyectos importador = new ImportadorProyectos(homeSolution, 2, 1);
+
+        ResultadoImportacion resultado = importador.importar(new BufferedReader(new StringReader(csv)), false);
+
+        assertEquals(1, resultado.getImportados());
+        assertEquals(2, resultado.getErrores().size());
+        assertEquals(Integer.valueOf(3), resultado.getErrores().get(0).getValor1());
+        assertEquals(Integer.valueOf(4), resultado.getErrores().get(1).getValor1());
+        assertEquals("Calle 1", homeSolution.consultarDomicilioProyecto(3));
+        assertEquals(2, homeSolution.tareasDeUnProyecto(3).length);
+    }
+
+    @Test
+    public void testImportarEnBloqueEnLosEnvoltorios() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 1; i <= 7; i++) {
+            String fin = i == 4 ? "2025-12-01" : "2026-01-10"; // la cuarta fila termina antes de empezar
+            csv.append("Calle ").append(i).append(",Ana,ana@mail.com,111,2026-01-01,").append(fin).append(",Pintar,,2\n");
+        }
+        Path log = Files.createTempFile("homesolution", ".log");
+        Files.delete(log);
+        try {
+            HomeSolutionPersistente persistente = HomeSolutionPersistente.abrir(log);
+            ResultadoImportacion resultado = new ImportadorProyectos(persistente, 2, 3)
+                    .importar(new BufferedReader(new StringReader(csv.toString())), false);
+            persistente.close();
+
+            assertEquals(6, resultado.getImportados());
+            assertEquals(Integer.valueOf(4), resultado.getErrores().get(0).getValor1());
+            assertEquals("Calle 5", persistente.consultarDomicilioProyecto(4));
+            HomeSolution reabierto = new HomeSolution();
+            assertEquals(6, RegistroMutaciones.reproducir(log, reabierto));
+            assertEquals(persistente.getSistema().toString(), reabierto.toString());
+
+            HomeSolutionConcurrente concurrente = new HomeSolutionConcurrente(new HomeSolution(), 4);
+            resultado = new ImportadorProyectos(concurrente, 2, 3)
+                    .importar(new BufferedReader(new StringReader(csv.toString())), false);
+            assertEquals(6, resultado.getImportados());
+            assertEquals("Calle 7", concurrente.consultarDomicilioProyecto(6));
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    public void testImportarJsonl() throws Exception {
+        String jsonl = "{\"domicilio\":\"Calle 9\",\"cliente\":{\"nombre\":\"Ana\",\"email\":\"ana@mail.com\",\"telefono\":111},"
+                + "\"inicio\":\"2026-01-01\",\"fin\":\"2026-01-10\",\"tareas\":[{\"titulo\":\"Pintar\",\"dias\":2}]}\n"
+                + "{\"domicilio\":\"Calle 10\"}\n";
+
+        ResultadoImportacion resultado = new ImportadorProyectos(homeSolution)
+                .importar(new BufferedReader(new StringReader(jsonl)), true);
+
+        assertEquals(1, resultado.getImportados());
+        assertEquals(1, resultado.getErrores().size());
+        assertEquals("Calle 9", homeSolution.consultarDomicilioProyecto(3));
+    }
+
+    @Test
+    public void testExportarProyectosYTareasEnCsvYJsonl() throws Exception {
+        asignarTareas(1);
+        StringWriter proyectos = new StringWriter();
+        new ExportadorReportes((HomeSolution) homeSolution, ExportadorReportes.csv).exportarProyectos(proyectos);
+        String[] lineas = proyectos.toString().split("\n");
+
+        assertEquals(3, lineas.length); // encabezado y dos proyectos
+        assertTrue(lineas[0].startsWith("numero,estado,domicilio"));
+
+        StringWriter tareas = new StringWriter();
+        new ExportadorReportes((HomeSolution) homeSolution, ExportadorReportes.jsonl).exportarTareas(tareas);
+        assertEquals(8, tareas.toString().split("\n").length);
+        assertTrue(tareas.toString().contains("\"titulo\":\"Pintar\""));
+    }
+
+    @Test
+    public void testPaginaEnormeNoReservaDeMas() {
+        Pagina<Tupla<Integer,String>> proyectos = homeSolution.proyectosPorEstado(Estado.pendiente, Integer.MAX_VALUE, null);
+        assertEquals(2, proyectos.getElementos().size());
+        assertFalse(proyectos.hayMas());
+        Pagina<Tupla<Integer,String>> empleados = homeSolution.empleados(Integer.MAX_VALUE, null);
+        assertEquals(4, empleados.getElementos().size());
+        assertFalse(empleados.hayMas());
+    }
+
+    @Test
+    public void testPaginarProyectosYEmpleados() {
+        Pagina<Tupla<Integer,String>> primera = homeSolution.proyectosPorEstado(Estado.pendiente, 1, null);
+        assertEquals(1, primera.getElementos().get(0).getValor1().intValue());
+        assertTrue(primera.hayMas());
+        Pagina<Tupla<Integer,String>> segunda = homeSolution.proyectosPorEstado(Estado.pendiente, 1, primera.getSiguiente());
+        assertEquals(2, segunda.getElementos().get(0).getValor1().intValue());
+        assertFalse(segunda.hayMas());
+
+        Pagina<Tupla<Integer,String>> empleados = homeSolution.empleados(3, null);
+        assertEquals(3, empleados.getElementos().size());
+        Pagina<Tupla<Integer,String>> resto = homeSolution.empleados(3, empleados.getSiguiente());
+        assertEquals(1, resto.getElementos().size());
+        assertEquals("Carlos", resto.getElementos().get(0).getValor2());
+        assertFalse(resto.hayMas());
+    }
+
+    @Test
+    public void testProyectosPorRangoDeFechas() throws Exception {
+        HomeSolution sistema = (HomeSolution) homeSolution;
+        List<Tupla<Integer,String>> empiezan = sistema.proyectosQueEmpiezanEntre(LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 7));
+        assertEquals(1, empiezan.size());
+        assertEquals("San Martin 1000", empiezan.get(0).getValor2());
+
+        LocalDate eneroDesde = LocalDate.of(2026, 1, 1);
+        LocalDate eneroHasta = LocalDate.of(2026, 1, 31);
+        assertTrue(sistema.proyectosQueTerminanEntre(eneroDesde, eneroHasta).isEmpty());
+        homeSolution.agregarTareaEnProyecto(1, "Techo", "", 40);
+        assertEquals(1, sistema.proyectosQueTerminanEntre(eneroDesde, eneroHasta).size());
+        assertEquals(1, sistema.proyectosQueTerminanEntre(LocalDate.of(2025, 12, 1), LocalDate.of(2025, 12, 31)).size());
+    }
+
+    @Test
+    public void testAvisosDeVencimiento() throws Exception {
+        HomeSolution sistema = new HomeSolution();
+        List<String> avisos = new ArrayList<>();
+        sistema.agregarObservadorVencimientos(new ObservadorVencimientos() {
+            @Override
+            public void proximoAVencer(int numero, LocalDate fechaFinEstimado) {
+                avisos.add("proximo " + numero);
+            }
+            @Override
+            public void vencido(int numero, LocalDate fechaFinEstimado) {
+                avisos.add("vencido " + numero);
+            }
+        });
+        String cliente[]={"Pedro Gomez", "mail@mail.com", "123456"};
+        sistema.registrarProyecto(new String[]{"Pintar"}, new String[]{""}, new double[]{10}, "Calle 1", cliente, "2030-01-01", "2030-01-11");
+
+        sistema.revisarVencimientos(LocalDate.of(2030, 1, 5));
+        assertTrue(avisos.contains("proximo 1"));
+        sistema.agregarTareaEnProyecto(1, "Techo", "", 10);
+        sistema.revisarVencimientos(LocalDate.of(2030, 1, 15));
+        assertFalse(avisos.contains("vencido 1")); // la tarea nueva corrió la fecha al 21
+        sistema.revisarVencimientos(LocalDate.of(2030, 1, 22));
+        assertTrue(avisos.contains("vencido 1"));
+    }
+
+    @Test
+    public void testColaDeTareasSinAsignar() throws Exception {
+        HomeSolution sistema = (HomeSolution) homeSolution;
+        List<Tupla<Integer,String>> siguientes = sistema.proximasTareasSinAsignar(8);
+        assertEquals(8, siguientes.size());
+        assertEquals(1, siguientes.get(0).getValor1().intValue()); // el proyecto 1 empieza antes
+
+        asignarTareas(1);
+        siguientes = sistema.proximasTareasSinAsignar(8);
+        assertEquals(4, siguientes.size());
+        assertEquals(2, siguientes.get(0).getValor1().intValue());
+
+        sistema.ordenarTareasSinAsignarPor(ColaTareasPendientes.porDiasNecesarios);
+        assertEquals("Pintar", sistema.proximasTareasSinAsignar(1).get(0).getValor2());
+    }
+
+    @Test
+    public void testDespachoAutomaticoAsignaAlLiberado() throws Exception {
+        HomeSolution sistema = (HomeSolution) homeSolution;
+        sistema.activarDespachoAutomatico(EstrategiaDespacho.fifo);
+        assertEquals(0, homeSolution.empleadosNoAsignados().length); // los cuatro libres van al proyecto 1
+        assertEquals(4, homeSolution.tareasProyectoNoAsignadas(2).length);
+
+        homeSolution.finalizarTarea(1, "Pintar");
+        assertEquals(0, homeSolution.empleadosNoAsignados().length);
+        assertEquals(3, homeSolution.tareasProyectoNoAsignadas(2).length);
+
+        sistema.desactivarDespachoAutomatico();
+        homeSolution.finalizarTarea(1, "Instalar AA");
+        assertEquals(1, homeSolution.empleadosNoAsignados().length);
+    }
+
+    @Test
+    public void testActivarDespachoDesdeLosEnvoltoriosDespachaALosLibres() throws Exception {
+        String cliente[]={"Pedro Gomez", "mail@mail.com", "123456"};
+        HomeSolutionConcurrente concurrente = new HomeSolutionConcurrente();
+        concurrente.registrarEmpleado("Ana", 100);
+        concurrente.registrarEmpleado("Bruno", 100);
+        concurrente.registrarProyecto(new String[]{"A","B","C"}, new String[]{"","",""}, new double[]{1,1,1}, "Calle 1", cliente, "2026-01-01", "2026-01-05");
+        try {
+            concurrente.getSistema().activarDespachoAutomatico(EstrategiaDespacho.fifo);
+            fail("Envuelto, el despacho se activa desde el envoltorio");
+        } catch (IllegalStateException e) {
+        }
+        concurrente.activarDespachoAutomatico(EstrategiaDespacho.fifo);
+        assertEquals(0, concurrente.empleadosNoAsignados().length);
+        assertEquals(1, concurrente.tareasProyectoNoAsignadas(1).length);
+
+        Path log = Files.createTempFile("homesolution", ".log");
+        Files.delete(log);
+        try {
+            try (HomeSolutionPersistente persistente = HomeSolutionPersistente.abrir(log)) {
+                persistente.registrarEmpleado("Ana", 100);
+                persistente.registrarEmpleado("Bruno", 100);
+                persistente.registrarProyecto(new String[]{"A","B","C"}, new String[]{"","",""}, new double[]{1,1,1}, "Calle 1", cliente, "2026-01-01", "2026-01-05");
+                persistente.activarDespachoAutomatico(EstrategiaDespacho.fifo);
+                assertEquals(0, persistente.empleadosNoAsignados().length);
+            }
+            // las asignaciones de la activación quedaron en el registro
+            try (HomeSolutionPersistente reabierto = HomeSolutionPersistente.abrir(log)) {
+                assertEquals(0, reabierto.empleadosNoAsignados().length);
+                assertEquals(1, reabierto.tareasProyectoNoAsignadas(1).length);
+            }
+        } finally {
+            Files.deleteIfExists(log);
+        }
+    }
+
+    @Test
+    public void testTareaConEmpleadoNoAceptaOtro() {
+        Tarea tarea = new Tarea("A", "", 1);
+        Empleado ana = new EmpleadoContratado(1, "Ana", 100);
+        Empleado bruno = new EmpleadoContratado(2, "Bruno", 100);
+        tarea.asignarEmpleado(ana);
+        try {
+            tarea.asignarEmpleado(bruno);
+            fail("La tarea ya tenía empleado");
+        } catch (IllegalStateException e) {
+        }
+        assertTrue(bruno.estaDisponible());
+        assertEquals(ana, tarea.getEmpleadoAsignado());
+    }
+
+    @Test
+    public void testAsignacionOptimaEnLote() throws Exception {
+        HomeSolution sistema = new HomeSolution();
+        sistema.registrarEmpleado("Barato", 100, "INICIAL");
+        sistema.registrarEmpleado("Caro", 1000, "EXPERTO");
+        String cliente[]={"Pedro Gomez", "mail@mail.com", "123456"};
+        sistema.registrarProyecto(new String[]{"Larga","Corta"}, new String[]{"",""}, new double[]{10,1}, "Calle 1", cliente, "2026-01-01", "2026-01-11");
+
+        List<ResultadoComando> asignaciones = sistema.asignarPendientesAlMenorCosto(0);
+
+        assertEquals(2, asignaciones.size());
+        assertEquals(0, sistema.empleadosNoAsignados().length);
+        // el barato se lleva la tarea larga: 100*10 + 1000*1 en lugar de 100*1 + 1000*10
+        assertEquals(2000 * 1.35, sistema.costoProyecto(1), 0.001);
+    }
+
+    @Test
+    public void testCaminoCriticoSeRecalculaConLosRetrasos() throws Exception {
+        HomeSolution sistema = new HomeSolution();
+        String cliente[]={"Pedro Gomez", "mail@mail.com", "123456"};
+        sistema.registrarProyecto(new String[]{"Cimientos","Paredes","Pintura"}, new String[]{"","",""}, new double[]{2,3,1}, "Calle 1", cliente, "2026-01-01", "2026-01-07");
+        sistema.agregarDependenciaEnProyecto(1, "Paredes", "Cimientos");
+
+        assertEquals(Arrays.asList("Cimientos", "Paredes"), sistema.caminoCritico(1));
+        assertEquals(LocalDate.of(2026, 1, 6), sistema.fechaFinPlanificada(1));
+
+        sistema.registrarRetrasoEnTarea(1, "Cimientos", 1);
+        assertEquals(LocalDate.of(2026, 1, 7), sistema.fechaFinPlanificada(1));
+        try {
+            sistema.agregarDependenciaEnProyecto(1, "Cimientos", "Paredes");
+            fail("La dependencia forma un ciclo");
+        } catch (IllegalArgumentException e) {
+            // esperado
+        }
+    }
+
+    @Test
+    public void testCronogramaConVariosCaminosPorTarea() throws Exception {
+        // Inicio -> Medio 1..5 -> Union -> Final 1..5, todas las del medio de 1 día salvo la 3
+        HomeSolution sistema = new HomeSolution();
+        String cliente[]={"Pedro Gomez", "mail@mail.com", "123456"};
+        String titulos[] = new String[12];
+        double dias[] = new double[12];
+        titulos[0] = "Inicio";
+        titulos[1] = "Union";
+        for (int i = 1; i <= 5; i++) {
+            titulos[1 + i] = "Medio " + i;
+            titulos[6 + i] = "Final " + i;
+        }
+        String descripciones[] = new String[12];
+        Arrays.fill(descripciones, "");
+        Arrays.fill(dias, 1);
+        dias[4] = 2; // Medio 3
+        sistema.registrarProyecto(titulos, descripciones, dias, "Calle 1", cliente, "2026-01-01", "2026-01-20");
+        for (int i = 1; i <= 5; i++) {
+            sistema.agregarDependenciaEnProyecto(1, "Medio " + i, "Inicio");
+            sistema.agregarDependenciaEnProyecto(1, "Union", "Medio " + i);
+            sistema.agregarDependenciaEnProyecto(1, "Final " + i, "Union");
+        }
+        assertEquals(LocalDate.of(2026, 1, 6), sistema.fechaFinPlanificada(1));
+
+        sistema.registrarRetrasoEnTarea(1, "Inicio", 2);
+        assertEquals(LocalDate.of(2026, 1, 8), sistema.fechaFinPlanificada(1));
+        // una del medio que no es la más larga no mueve nada; la más larga sí
+        sistema.registrarRetrasoEnTarea(1, "Medio 1", 1);
+        assertEquals(LocalDate.of(2026, 1, 8), sistema.fechaFinPlanificada(1));
+        sistema.registrarRetrasoEnTarea(1, "Medio 3", 1);
+        assertEquals(LocalDate.of(2026, 1, 9), sistema.fechaFinPlanificada(1));
+        assertEquals(Arrays.asList("Inicio", "Medio 3", "Union", "Final 1", "Final 2", "Final 3", "Final 4", "Final 5"),
+                sistema.caminoCritico(1));
+    }
+
+    @Test
+    public void testPronosticoCuentaRetrasosYTareasSinAsignar() throws Exception {
+        HomeSolution sistema = new HomeSolution();
+        sistema.registrarEmpleado("Barato", 100);
+        sistema.registrarEmpleado("Caro", 300);
+        String cliente[]={"Pedro Gomez", "mail@mail.com", "123456"};
+        sistema.registrarProyecto(new String[]{"Cimientos","Paredes"}, new String[]{"",""}, new double[]{2,3}, "Calle 1", cliente, "2026-01-01", "2026-01-06");
+        sistema.agregarDependenciaEnProyecto(1, "Paredes", "Cimientos");
+
+        sistema.asignarResponsableEnTarea(1, "Cimientos");
+        sistema.registrarRetrasoEnTarea(1, "Cimientos", 2);
+
+        Pronostico pronostico = sistema.pronostico(1);
+        // Cimientos dura 4 días con el retraso y Paredes empieza después
+        assertEquals(LocalDate.of(2026, 1, 8), pronostico.getFechaFin());
+        assertEquals(sistema.fechaFinPlanificada(1), pronostico.getFechaFin());
+        // Cimientos: 800 por día * 4 días; Paredes sin asignar: 3 días al promedio (800 + 2400) / 2
+        assertEquals((3200 + 3 * 1600) * 1.25, pronostico.getCosto(), 0.001);
+        assertEquals(pronostico.getCosto(), sistema.costoPronosticadoCartera(), 0.001);
+        assertEquals(LocalDate.of(2026, 1, 8), sistema.finPronosticadoCartera());
+
+        sistema.finalizarProyecto(1, "2026-01-10");
+        assertEquals(0, sistema.pronosticosSinFinalizar().size());
+        assertEquals(0, sistema.costoPronosticadoCartera(), 0.001);
+    }
+
+    @Test
+    public void testTomarEmpleadosConContencionNoRepiteNinguno() throws Exception {
+        HomeSolutionConcurrente sistema = new HomeSolutionConcurrente();
+        for (int i = 0; i < 3; i++) {
+            sistema.registrarEmpleado("Empleado " + i, 100);
+        }
+        String cliente[]={"Pedro Gomez", "mail@mail.com", "123456"};
+        String titulos[] = new String[40];
+        String descripciones[] = new String[40];
+        double dias[] = new double[40];
+        for (int i = 0; i < titulos.length; i++) {
+            titulos[i] = "Tarea " + i;
+            descripciones[i] = "";
+            dias[i] = 1;
+        }
+        int hilos = 8;
+        for (int p = 0; p < hilos; p++) {
+            sistema.registrarProyecto(titulos, descripciones, dias, "Calle " + p, cliente, "2026-01-01", "2026-03-01");
+        }
+        Map<Integer, Integer> ocupados = new ConcurrentHashMap<>();
+        AtomicInteger repetidos = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        List<Future<?>> trabajos = new ArrayList<>();
+        for (int p = 1; p <= hilos; p++) {
+            int numero = p;
+            trabajos.add(executor.submit(() -> {
+                for (int i = 0; i < titulos.length; i++) {
+                    // tres empleados para ocho hilos: se reintenta hasta que alguno quede libre
+                    Comando asignar = i % 2 == 0 ? Comando.asignar(numero, titulos[i])
+                            : Comando.asignarMenosRetraso(numero, titulos[i]);
+                    ResultadoComando resultado;
+                    while (!(resultado = sistema.ejecutarLote(Arrays.asList(asignar)).get(0)).esExitoso()) {
+                        Thread.yield();
+                    }
+                    int legajo = resultado.getLegajoAsignado();
+                    if (ocupados.putIfAbsent(legajo, numero) != null) repetidos.incrementAndGet();
+                    Thread.yield();
+                    ocupados.remove(legajo, numero);
+                    sistema.finalizarTarea(numero, titulos[i]);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> trabajo : trabajos) {
+            trabajo.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        assertEquals(0, repetidos.get());
+        assertEquals(3, sistema.empleadosNoAsignados().length);
+    }
+
+    @Test
+    public void testConcurrenteMantieneIndicesYEmpleadosSinTrabarse() throws Exception {
+        // pocas franjas para que los lotes y las operaciones sueltas choquen seguido
+        HomeSolutionConcurrente sistema = new HomeSolutionConcurrente(new HomeSolution(), 4);
+        int empleados = 5;
+        for (int i = 0; i < empleados; i++) {
+            sistema.registrarEmpleado("Empleado " + i, 100);
+        }
+        String cliente[]={"Pedro Gomez", "mail@mail.com", "123456"};
+        String titulos[] = new String[10];
+        String descripciones[] = new String[10];
+        double dias[] = new double[10];
+        for (int i = 0; i < titulos.length; i++) {
+            titulos[i] = "Tarea " + i;
+            descripciones[i] = "";
+            dias[i] = 1;
+        }
+        for (int p = 0; p < 6; p++) {
+            sistema.registrarProyecto(titulos, descripciones, dias, "Calle " + p, cliente, "2026-01-01", "2026-03-01");
+        }
+        AtomicInteger registrados = new AtomicInteger(6);
+        int hilos = 6;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        List<Future<?>> trabajos = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            Random random = new Random(h);
+            trabajos.add(executor.submit(() -> {
+                for (int i = 0; i < 300; i++) {
+                    int numero = 1 + random.nextInt(registrados.get());
+                    String titulo = titulos[random.nextInt(titulos.length)];
+                    try {
+                        switch (i % 7) {
+                            case 0: sistema.asignarResponsableEnTarea(numero, titulo); break;
+                            case 1: sistema.asignarResponsableMenosRetraso(numero, titulo); break;
+                            case 2: sistema.registrarRetrasoEnTarea(numero, titulo, 1); break;
+                            case 3: sistema.finalizarTarea(numero, titulo); break;
+                            case 4:
+                                List<Comando> lote = new ArrayList<>();
+                                for (int c = 0; c < 4; c++) {
+                                    int otro = 1 + random.nextInt(registrados.get());
+                                    String otraTarea = titulos[random.nextInt(titulos.length)];
+                                    lote.add(c % 2 == 0 ? Comando.asignar(otro, otraTarea) : Comando.finalizarTarea(otro, otraTarea));
+                                }
+                                sistema.ejecutarLote(lote);
+                                break;
+                            case 5:
+                                if (i % 35 == 5) {
+                                    sistema.registrarProyecto(titulos, descripciones, dias, "Calle nueva", cliente, "2026-01-01", "2026-03-01");
+                                    registrados.incrementAndGet();
+                                }
+                                break;
+                            default: sistema.reasignarEmpleadoConMenosRetraso(numero, titulo);
+                        }
+                    } catch (IllegalArgumentException | IllegalStateException e) {
+                        // tarea terminada, sin empleados libres, etc.: son rechazos esperados
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> trabajo : trabajos) {
+            try {
+                trabajo.get(30, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                fail("Los hilos no terminaron: posible deadlock");
+            }
+        }
+        executor.shutdown();
+
+        // cada proyecto aparece en un solo estado y los costos por estado suman lo mismo que los proyectos
+        int proyectos = registrados.get();
+        assertEquals(proyectos, sistema.proyectosPendientes().size() + sistema.proyectosActivos().size()
+                + sistema.proyectosFinalizados().size());
+        HomeSolution interno = sistema.getSistema();
+        double total = 0;
+        for (int n = 1; n <= proyectos; n++) {
+            total += sistema.costoProyecto(n);
+        }
+        double porEstado = interno.costoTotalPorEstado(Estado.pendiente) + interno.costoTotalPorEstado(Estado.activo)
+                + interno.costoTotalPorEstado(Estado.finalizado);
+        assertEquals(total, porEstado, 1e-6);
+
+        // ningún empleado quedó en dos tareas abiertas y los demás volvieron al pool
+        StringWriter tareas = new StringWriter();
+        new ExportadorReportes(interno, ExportadorReportes.csv).exportarTareas(tareas);
+        Set<String> ocupados = new HashSet<>();
+        String[] lineas = tareas.toString().split("\n");
+        for (int i = 1; i < lineas.length; i++) {
+            String[] columnas = lineas[i].split(",", -1);
+            if ("false".equals(columnas[5]) && !columnas[6].isEmpty()) {
+                assertTrue("Empleado repetido: " + columnas[6], ocupados.add(columnas[6]));
+            }
+        }
+        assertEquals(empleados, ocupados.size() + sistema.empleadosNoAsignados().length);
+    }
+
+    @Test
+    public void testAsincronicaRespetaElOrdenPorProyecto() throws Exception {
+        HomeSolutionConcurrente concurrente = new HomeSolutionConcurrente();
+        concurrente.registrarEmpleado("Ana", 100);
+        String cliente[]={"Pedro Gomez", "mail@mail.com", "123456"};
+        concurrente.registrarProyecto(new String[]{"Inicio"}, new String[]{""}, new double[]{1}, "Calle 1", cliente, "2026-01-01", "2026-01-02");
+        try (HomeSolutionAsincronica asincronica = new HomeSolutionAsincronica(concurrente, Executors.newFixedThreadPool(8), true)) {
+            // cada paso solo funciona si el anterior ya corrió
+            List<CompletableFuture<Void>> pasos = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                pasos.add(asincronica.agregarTareaEnProyecto(1, "Tarea " + i, "", 1));
+                pasos.add(asincronica.asignarResponsableEnTarea(1, "Tarea " + i));
+                pasos.add(asincronica.finalizarTarea(1, "Tarea " + i));
+            }
+            for (CompletableFuture<Void> paso : pasos) {
+                paso.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(1, concurrente.empleadosNoAsignados().length);
+            assertEquals(51, concurrente.tareasDeUnProyecto(1).length);
+        }
+    }
+
+    @Test
+    public void testAsincronicaPropagaErroresSinFrenarAlProyecto() throws Exception {
+        HomeSolutionConcurrente concurrente = new HomeSolutionConcurrente();
+        String cliente[]={"Pedro Gomez", "mail@mail.com", "123456"};
+        concurrente.registrarProyecto(new String[]{"Inicio"}, new String[]{""}, new double[]{1}, "Calle 1", cliente, "2026-01-01", "2026-01-02");
+        HomeSolutionAsincronica asincronica = new HomeSolutionAsincronica(concurrente, Executors.newFixedThreadPool(4), true);
+
+        CompletableFuture<Void> fallida = asincronica.finalizarTarea(1, "No existe");
+        CompletableFuture<Void> siguiente = asincronica.agregarTareaEnProyecto(1, "Otra", "", 1);
+        try {
+            fallida.get(10, TimeUnit.SECONDS);
+            fail("La tarea no existe");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        siguiente.get(10, TimeUnit.SECONDS);
+        assertEquals(2, concurrente.tareasProyectoNoAsignadas(1).length);
+
+        // con el executor cerrado la operación falla en lugar de quedar pendiente
+        asincronica.close();
+        try {
+            asincronica.agregarTareaEnProyecto(1, "Tarde", "", 1).get(10, TimeUnit.SECONDS);
+            fail("El executor está cerrado");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
     private void asignarTareas(Integer numeroProyecto) throws Exception{
         homeSolution.asignarResponsableEnTarea(numeroProyecto,"Pintar");
         homeSolution.asignarResponsableEnTarea(numeroProyecto,"Instalacion electrica");